@@ -0,0 +1,115 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h11;
+
+import java.util.Random;
+
+/** A class to time the coefficient loops of {@link DensePoly}. */
+public class DensePolyBenchmark {
+
+  /** The number of coefficients of the large operands, that do not fit in the caches. */
+  private static final int LARGE = 1 << 20;
+
+  /** The number of coefficients of the medium operands, that fit in the first level cache. */
+  private static final int MEDIUM = 1 << 12;
+
+  /** The number of coefficients of the small operands. */
+  private static final int SMALL = 60;
+
+  /** The number of timed operations on the large operands, for each round. */
+  private static final int LARGE_OPS = 200;
+
+  /** The number of timed operations on the medium operands, for each round. */
+  private static final int MEDIUM_OPS = 50_000;
+
+  /** The number of timed products of the small operands, for each round. */
+  private static final int SMALL_OPS = 200_000;
+
+  /** . */
+  private DensePolyBenchmark() {}
+
+  /**
+   * Times {@link DensePoly#add(DensePoly)}, {@link DensePoly#sub(DensePoly)} and {@link
+   * DensePoly#minus()} on two random polynomials with \( 2^{12} \) and \( 2^{20} \) coefficients,
+   * and {@link DensePoly#mul(DensePoly)} on two random polynomials with 60 coefficients (that is,
+   * the schoolbook product).
+   *
+   * <p>First emits in the standard output the implementation of the {@link CoefficientKernels} in
+   * use. Then, for each round, emits the average time of an operation, in microseconds; the first
+   * rounds let the JIT compiler warm up and should be disregarded. Finally, emits a checksum of the
+   * results, so that no computation can be optimized away.
+   *
+   * <p>Run it with {@code ./gradlew benchmark}, that disables assertions and adds the Vector API
+   * module, or with {@code ./gradlew benchmark -PscalarKernels} to time the scalar loops.
+   *
+   * @param args the number of rounds (3 if not given).
+   */
+  public static void main(String[] args) {
+    final int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+    final Random random = new Random(1);
+    final DensePoly p = randomPoly(random, LARGE), q = randomPoly(random, LARGE);
+    final DensePoly pm = randomPoly(random, MEDIUM), qm = randomPoly(random, MEDIUM);
+    final DensePoly ps = randomPoly(random, SMALL), qs = randomPoly(random, SMALL);
+    System.out.println("Kernels: " + CoefficientKernels.load().getClass().getSimpleName());
+    long checksum = 0;
+    for (int round = 0; round < rounds; round++) {
+      final long t0 = System.nanoTime();
+      for (int k = 0; k < MEDIUM_OPS; k++) checksum += pm.add(qm).coeff(k % MEDIUM);
+      final long t1 = System.nanoTime();
+      for (int k = 0; k < MEDIUM_OPS; k++) checksum += pm.sub(qm).coeff(k % MEDIUM);
+      final long t2 = System.nanoTime();
+      for (int k = 0; k < MEDIUM_OPS; k++) checksum += pm.minus().coeff(k % MEDIUM);
+      final long t3 = System.nanoTime();
+      for (int k = 0; k < LARGE_OPS; k++) checksum += p.add(q).coeff(k);
+      final long t4 = System.nanoTime();
+      for (int k = 0; k < LARGE_OPS; k++) checksum += p.sub(q).coeff(k);
+      final long t5 = System.nanoTime();
+      for (int k = 0; k < LARGE_OPS; k++) checksum += p.minus().coeff(k);
+      final long t6 = System.nanoTime();
+      for (int k = 0; k < SMALL_OPS; k++) checksum += ps.mul(qs).coeff(k % SMALL);
+      final long t7 = System.nanoTime();
+      System.out.printf(
+          "2^12: add %.2f us, sub %.2f us, minus %.2f us; "
+              + "2^20: add %.0f us, sub %.0f us, minus %.0f us; mul %.2f us%n",
+          (t1 - t0) / 1e3 / MEDIUM_OPS,
+          (t2 - t1) / 1e3 / MEDIUM_OPS,
+          (t3 - t2) / 1e3 / MEDIUM_OPS,
+          (t4 - t3) / 1e3 / LARGE_OPS,
+          (t5 - t4) / 1e3 / LARGE_OPS,
+          (t6 - t5) / 1e3 / LARGE_OPS,
+          (t7 - t6) / 1e3 / SMALL_OPS);
+    }
+    System.out.println("Checksum: " + checksum);
+  }
+  /**
+   * Returns a polynomial with random odd coefficients.
+   *
+   * @param random the source of randomness.
+   * @param n the number of coefficients.
+   * @return a polynomial of degree {@code n - 1}.
+   */
+  private static DensePoly randomPoly(Random random, int n) {
+    final int[] coefficient = new int[n];
+    for (int i = 0; i < n; i++) coefficient[i] = random.nextInt() | 1;
+    return DensePoly.ofCoefficients(coefficient);
+  }
+}
@@ -21,6 +21,7 @@ along with this file.  If not, see <https://www.gnu.org/licenses/>.
 
 package it.unimi.di.prog2.e12;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
@@ -102,14 +103,86 @@ public class BoundedIntQueue {
     return x;
   }
 
+  /**
+   * Adds the given elements to the queue, in order.
+   *
+   * <p>The elements are copied with at most two {@link System#arraycopy} calls.
+   *
+   * @param src the array containing the elements to add.
+   * @param off the position in {@code src} of the first element to add.
+   * @param len the number of elements to add.
+   * @throws NullPointerException if {@code src} is {@code null}.
+   * @throws IndexOutOfBoundsException if {@code off} and {@code len} are not valid for {@code src}.
+   * @throws IllegalStateException if the queue has room for less than {@code len} elements (in
+   *     which case no element is added).
+   */
+  public void enqueueAll(int[] src, int off, int len) {
+    Objects.checkFromIndexSize(off, len, Objects.requireNonNull(src).length);
+    if (len > elements.length - size) {
+      throw new IllegalStateException("Queue is full");
+    }
+    if (len == 0) {
+      return;
+    }
+    int first = Math.min(len, elements.length - tail);
+    System.arraycopy(src, off, elements, tail, first);
+    System.arraycopy(src, off + first, elements, 0, len - first);
+    tail = (tail + len) % elements.length;
+    size += len;
+  }
+
+  /**
+   * Removes the given number of elements from the head of the queue, copying them in order.
+   *
+   * <p>The elements are copied with at most two {@link System#arraycopy} calls.
+   *
+   * @param dst the array where to copy the removed elements.
+   * @param off the position in {@code dst} of the first removed element.
+   * @param len the number of elements to remove.
+   * @throws NullPointerException if {@code dst} is {@code null}.
+   * @throws IndexOutOfBoundsException if {@code off} and {@code len} are not valid for {@code dst}.
+   * @throws IllegalStateException if the queue contains less than {@code len} elements (in which
+   *     case no element is removed).
+   */
+  public void dequeueInto(int[] dst, int off, int len) {
+    Objects.checkFromIndexSize(off, len, Objects.requireNonNull(dst).length);
+    if (len > size) {
+      throw new IllegalStateException("Queue does not contain enough elements");
+    }
+    if (len == 0) {
+      return;
+    }
+    int first = Math.min(len, elements.length - head);
+    System.arraycopy(elements, head, dst, off, first);
+    System.arraycopy(elements, 0, dst, off + first, len - first);
+    head = (head + len) % elements.length;
+    size -= len;
+  }
+
+  /**
+   * Returns the length of the first contiguous segment of {@code elements} holding the queue.
+   *
+   * <p>The queue elements are those in {@code elements[head, head + first)} followed by those in
+   * {@code elements[0, size - first)}.
+   *
+   * @return the number of queue elements stored from {@code head} on, without wrapping around.
+   */
+  private int firstSegmentLength() {
+    return Math.min(size, elements.length - head);
+  }
+
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder("BoundedIntQueue: [");
-    for (int i = 0; i < size; i++) {
-      if (i > 0) {
-        sb.append(", ");
-      }
-      sb.append(elements[(head + i) % elements.length]);
+    int first = firstSegmentLength();
+    for (int i = 0; i < first; i++) {
+      sb.append(elements[head + i]).append(", ");
+    }
+    for (int i = 0; i < size - first; i++) {
+      sb.append(elements[i]).append(", ");
+    }
+    if (size > 0) {
+      sb.setLength(sb.length() - 2);
     }
     sb.append("]");
     return sb.toString();
@@ -123,11 +196,16 @@ public class BoundedIntQueue {
     if (size != other.size) {
       return false;
     }
-    for (int i = 0; i < size; i++) {
-      if (elements[(head + i) % elements.length]
-          != other.elements[(other.head + i) % other.elements.length]) {
+    // compares the pieces where neither queue wraps around (at most three)
+    int i = head, j = other.head, done = 0;
+    while (done < size) {
+      int n = Math.min(size - done, Math.min(elements.length - i, other.elements.length - j));
+      if (!Arrays.equals(elements, i, i + n, other.elements, j, j + n)) {
         return false;
       }
+      done += n;
+      i = (i + n) % elements.length;
+      j = (j + n) % other.elements.length;
     }
     return true;
   }
@@ -135,8 +213,12 @@ public class BoundedIntQueue {
   @Override
   public int hashCode() {
     int result = Objects.hash(size);
-    for (int i = 0; i < size; i++) {
-      result += Integer.hashCode(elements[(head + i) % elements.length]);
+    int first = firstSegmentLength();
+    for (int i = 0; i < first; i++) {
+      result += Integer.hashCode(elements[head + i]);
+    }
+    for (int i = 0; i < size - first; i++) {
+      result += Integer.hashCode(elements[i]);
     }
     return result;
   }
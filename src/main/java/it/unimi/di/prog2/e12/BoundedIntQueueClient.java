@@ -34,16 +34,38 @@ public class BoundedIntQueueClient {
    * to a bounded queue of size 10; if a negative number is read, it is dequeued and emitted on the
    * standard output. When the input terminates, the queue is emitted on the standard output.
    *
+   * <p>The input can also contain the word {@code enqueueAll} followed by a length \( n \) and \( n
+   * \) numbers, that are added to the queue at once, or the word {@code dequeueInto} followed by a
+   * length \( n \), in which case \( n \) numbers are dequeued at once and emitted on the standard
+   * output. If such operations fail, the name of the exception is emitted instead.
+   *
    * @param args not used.
    */
 
   public static void main(String[] args) {
     BoundedIntQueue queue = new BoundedIntQueue(10);
     try (java.util.Scanner s = new java.util.Scanner(System.in)) {
-      while (s.hasNextInt()) {
-        int x = s.nextInt();
-        if (x > 0) queue.enqueue(x);
-        else System.out.println(queue.dequeue());
+      while (s.hasNext()) {
+        if (s.hasNextInt()) {
+          int x = s.nextInt();
+          if (x > 0) queue.enqueue(x);
+          else System.out.println(queue.dequeue());
+          continue;
+        }
+        String command = s.next();
+        int len = s.nextInt();
+        int[] buffer = new int[len + 2]; // the elements are at offset 1, so to exercise off
+        try {
+          if (command.equals("enqueueAll")) {
+            for (int i = 0; i < len; i++) buffer[1 + i] = s.nextInt();
+            queue.enqueueAll(buffer, 1, len);
+          } else {
+            queue.dequeueInto(buffer, 1, len);
+            for (int i = 0; i < len; i++) System.out.println(buffer[1 + i]);
+          }
+        } catch (IllegalStateException e) {
+          System.out.println(e.getClass().getSimpleName());
+        }
       }
     }
     System.out.println(queue);
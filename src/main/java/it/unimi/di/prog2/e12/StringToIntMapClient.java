@@ -21,6 +21,14 @@ along with this file.  If not, see <https://www.gnu.org/licenses/>.
 
 package it.unimi.di.prog2.e12;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Scanner;
 
 /** A class to exercise some methods of {@link StringToIntMap}. */
@@ -46,11 +54,18 @@ public class StringToIntMapClient {
    * <p>The client emits in the standard output the value returned by performing the action
    * requested by the commands.
    *
-   * @param args not used.
+   * <p>If the first argument is {@code fast}, the commands are processed by {@link
+   * #runFast(StringToIntMap)}, that produces the same output at a much higher throughput.
+   *
+   * @param args {@code fast} to use the high-throughput driver, nothing otherwise.
    */
 
   public static void main(String[] args) {
     StringToIntMap map = new StringToIntMap();
+    if (args.length > 0 && args[0].equals("fast")) {
+      runFast(map);
+      return;
+    }
     try (Scanner s = new Scanner(System.in)) {
       while (s.hasNextLine()) {
         String[] cmds = s.nextLine().split(" ");
@@ -85,4 +100,203 @@ public class StringToIntMapClient {
       }
     }
   }
+
+  /**
+   * Processes the commands read from the standard input with the same semantics, and output, of
+   * {@link #main(String[])}.
+   *
+   * <p>Commands are tokenized directly from the bytes read in large blocks from the standard input,
+   * without building a {@link String} per line or a {@code String[]} per command (only keys are
+   * decoded), and the results are accumulated in a single buffered writer that is flushed at the
+   * end, or before an exception propagates.
+   *
+   * @param map the map the commands act upon.
+   * @throws UncheckedIOException if an I/O error occurs.
+   */
+  private static void runFast(StringToIntMap map) {
+    final Writer out =
+        new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+    final String nl = System.lineSeparator();
+    final CommandReader in = new CommandReader(System.in);
+    try {
+      try {
+        while (in.nextLine()) {
+          final char command = in.command();
+          final String key = in.nextString();
+          final int value = in.nextInt(-1);
+          switch (command) {
+            case '+':
+              if (map.containsKey(key)) {
+                map.remove(key);
+                out.write("false");
+              } else {
+                out.write("true");
+              }
+              out.write(nl);
+              map.put(key, value);
+              break;
+            case '-':
+              out.write(map.remove(key) ? "true" : "false");
+              out.write(nl);
+              break;
+            case '?':
+              out.write(Integer.toString(map.get(key)));
+              out.write(nl);
+              break;
+            case 'c':
+              map.clear();
+              break;
+            case '#':
+              out.write(Integer.toString(map.size()));
+              out.write(nl);
+              break;
+            default:
+              throw new IllegalArgumentException("Unknown command: " + command);
+          }
+        }
+      } finally {
+        out.flush();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** A reader splitting the lines of a stream into space separated fields, working on bytes. */
+  private static final class CommandReader {
+
+    /** The stream to read from. */
+    private final InputStream in;
+
+    /** The block of bytes read from the stream. */
+    private final byte[] block = new byte[1 << 16];
+
+    /** The position in {@link #block} of the next byte to consume. */
+    private int pos = 0;
+
+    /** The number of valid bytes in {@link #block}. */
+    private int limit = 0;
+
+    /** The current line, without line terminator. */
+    private byte[] line = new byte[128];
+
+    /** The length of the current line. */
+    private int length = 0;
+
+    /** The position in {@link #line} of the next field. */
+    private int field = 0;
+
+    /*-
+     * AF: the lines still to read are line[field..length) (the not yet parsed fields of the
+     *     current line) followed by the lines in block[pos..limit) and then in the stream.
+     *
+     * RI: 0 <= pos <= limit <= block.length, 0 <= length <= line.length, 0 <= field <= length + 1
+     */
+
+    /**
+     * Creates a reader for the given stream.
+     *
+     * @param in the stream.
+     */
+    CommandReader(InputStream in) {
+      this.in = in;
+    }
+
+    /**
+     * Advances to the next line.
+     *
+     * @return {@code false} iff the stream has no more lines.
+     * @throws IOException if an I/O error occurs.
+     */
+    boolean nextLine() throws IOException {
+      length = 0;
+      field = 0;
+      boolean read = false;
+      while (true) {
+        if (pos == limit) {
+          limit = Math.max(0, in.read(block));
+          pos = 0;
+          if (limit == 0) return read;
+        }
+        read = true;
+        final int start = pos;
+        while (pos < limit && block[pos] != '\n') pos++;
+        final int n = pos - start;
+        if (length + n > line.length)
+          line = Arrays.copyOf(line, Math.max(length + n, 2 * line.length));
+        System.arraycopy(block, start, line, length, n);
+        length += n;
+        if (pos < limit) {
+          pos++;
+          if (length > 0 && line[length - 1] == '\r') length--;
+          return true;
+        }
+      }
+    }
+
+    /**
+     * Returns the end of the next field.
+     *
+     * @return the position in {@link #line} of the first space after the next field, or {@link
+     *     #length}.
+     */
+    private int fieldEnd() {
+      int end = field;
+      while (end < length && line[end] != ' ') end++;
+      return end;
+    }
+
+    /**
+     * Returns the first character of the first field of the line.
+     *
+     * @return the command.
+     * @throws IllegalArgumentException if the first field is empty.
+     */
+    char command() {
+      final int end = fieldEnd();
+      if (end == 0) throw new IllegalArgumentException("Missing command");
+      field = end + 1;
+      return (char) (line[0] & 0xFF);
+    }
+
+    /**
+     * Returns the next field of the line, as a string.
+     *
+     * @return the field, or {@code null} if the line has no more fields.
+     */
+    String nextString() {
+      if (field >= length) return null;
+      final int start = field, end = fieldEnd();
+      field = end + 1;
+      return new String(line, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the next field of the line, as an integer.
+     *
+     * @param missing the value to return if the line has no more fields.
+     * @return the value of the field, or {@code missing}.
+     * @throws NumberFormatException if the field is not a decimal {@code int}.
+     */
+    int nextInt(int missing) {
+      if (field >= length) return missing;
+      final int start = field, end = fieldEnd();
+      field = end + 1;
+      int i = start;
+      final boolean negative = line[i] == '-';
+      if (negative || line[i] == '+') i++;
+      if (i == end) throw new NumberFormatException("Not a number");
+      long result = 0;
+      for (; i < end; i++) {
+        final int digit = line[i] - '0';
+        if (digit < 0 || digit > 9 || result > Integer.MAX_VALUE)
+          throw new NumberFormatException("Not a number");
+        result = result * 10 + digit;
+      }
+      if (negative) result = -result;
+      if (result < Integer.MIN_VALUE || result > Integer.MAX_VALUE)
+        throw new NumberFormatException("Out of range");
+      return (int) result;
+    }
+  }
 }
@@ -21,15 +21,172 @@ along with this file.  If not, see <https://www.gnu.org/licenses/>.
 
 package it.unimi.di.prog2.h09;
 
+import java.util.Arrays;
+import java.util.Objects;
+
 /**
  * {@code Poly}s are immutable polynomials with integer coefficients.
  *
  * <p>A typical {@code Poly} is \( p = c_0 + c_1 x + c_2 x^2 + \cdots + c_n x^n \).
+ *
+ * <p>Differently from {@link DensePoly} and {@link SparsePoly}, the representation is not chosen
+ * up front: every operation returns a polynomial stored either as a <em>dense</em> array of all the
+ * coefficients, or as a <em>sparse</em> pair of arrays of the degrees and coefficients of the
+ * non-zero terms, whichever uses less memory (a sparse term takes two {@code int}s, a dense one
+ * just one). Operands with different representations are combined without converting them first
+ * whenever possible.
  */
 public class Poly {
 
-  /** . */
-  private Poly() {}
+  /**
+   * The coefficients: if {@link #degree} is {@code null}, {@code coefficient[i]} is the
+   * coefficient of \( x^i \), otherwise it is the coefficient of \( x^{degree[i]} \).
+   */
+  private final int[] coefficient;
+
+  /** The degrees of the terms, in increasing order, or {@code null} if this is dense. */
+  private final int[] degree;
+
+  /*-
+   * AF:
+   *
+   *  AF(coefficient, degree) = sum of coefficient[i] x^i, for 0 <= i < coefficient.length,
+   *      if degree == null,
+   *    sum of coefficient[i] x^degree[i], for 0 <= i < coefficient.length, otherwise
+   *
+   * RI:
+   *
+   *  - coefficient != null
+   *  - if degree == null: coefficient.length == 0 or coefficient[coefficient.length - 1] != 0, and
+   *    denser(number of non-zero coefficients, coefficient.length - 1)
+   *  - if degree != null: degree.length == coefficient.length > 0, degree is strictly increasing
+   *    with degree[0] >= 0, every coefficient is non-zero and
+   *    !denser(coefficient.length, degree[degree.length - 1])
+   *
+   * The representation is hence a function of the polynomial alone.
+   */
+
+  /** Initializes this to be the zero polynomial, that is \( p = 0 \). */
+  public Poly() {
+    this(new int[0], null);
+  }
+
+  /**
+   * Initializes this to be the polynomial \(p = cx^n\).
+   *
+   * @param c the coefficient.
+   * @param n the degree.
+   * @throws IllegalArgumentException if {@code n} &lt; 0.
+   */
+  public Poly(int c, int n) throws IllegalArgumentException {
+    if (n < 0) throw new IllegalArgumentException("Can't create a monomial with negative exponent");
+    if (c == 0) {
+      coefficient = new int[0];
+      degree = null;
+    } else if (denser(1, n)) {
+      coefficient = new int[n + 1];
+      coefficient[n] = c;
+      degree = null;
+    } else {
+      coefficient = new int[] {c};
+      degree = new int[] {n};
+    }
+  }
+
+  /**
+   * Initializes a polynomial given its representation.
+   *
+   * @param coefficient the coefficients.
+   * @param degree the degrees, or {@code null} for a dense polynomial.
+   */
+  private Poly(int[] coefficient, int[] degree) {
+    this.coefficient = coefficient;
+    this.degree = degree;
+  }
+
+  /**
+   * Tells whether a polynomial is represented as dense.
+   *
+   * @param terms the number of non-zero terms.
+   * @param degree the degree of the polynomial.
+   * @return {@code true} iff the dense representation uses at most as much memory as the sparse
+   *     one.
+   */
+  private static boolean denser(int terms, int degree) {
+    return 2L * terms >= degree + 1L;
+  }
+
+  /**
+   * Returns a polynomial given the first coefficients of a dense array, choosing its
+   * representation.
+   *
+   * @param coefficient the coefficients, {@code coefficient[i]} is the coefficient of \( x^i \).
+   * @param length the number of coefficients to consider (possibly followed by zeros).
+   * @return the polynomial.
+   */
+  private static Poly ofDense(int[] coefficient, int length) {
+    while (length > 0 && coefficient[length - 1] == 0) length--;
+    int terms = 0;
+    for (int i = 0; i < length; i++) if (coefficient[i] != 0) terms++;
+    if (denser(terms, length - 1))
+      return new Poly(
+          length == coefficient.length ? coefficient : Arrays.copyOf(coefficient, length), null);
+    final int[] d = new int[terms], c = new int[terms];
+    for (int i = 0, k = 0; k < terms; i++)
+      if (coefficient[i] != 0) {
+        d[k] = i;
+        c[k++] = coefficient[i];
+      }
+    return new Poly(c, d);
+  }
+
+  /**
+   * Returns a polynomial given its first non-zero terms, choosing its representation.
+   *
+   * @param degree the degrees of the terms, strictly increasing.
+   * @param coefficient the coefficients of the terms, all different from zero.
+   * @param terms the number of terms to consider.
+   * @return the polynomial.
+   */
+  private static Poly ofSparse(int[] degree, int[] coefficient, int terms) {
+    if (terms == 0) return new Poly();
+    if (denser(terms, degree[terms - 1])) {
+      final int[] dense = new int[degree[terms - 1] + 1];
+      for (int i = 0; i < terms; i++) dense[degree[i]] = coefficient[i];
+      return new Poly(dense, null);
+    }
+    return terms == degree.length
+        ? new Poly(coefficient, degree)
+        : new Poly(Arrays.copyOf(coefficient, terms), Arrays.copyOf(degree, terms));
+  }
+
+  /**
+   * Returns the non-zero terms of this polynomial.
+   *
+   * @return an array containing the array of degrees, in increasing order, and the array of
+   *     corresponding coefficients (shared with this polynomial, if it is sparse).
+   */
+  private int[][] terms() {
+    if (degree != null) return new int[][] {degree, coefficient};
+    int terms = 0;
+    for (int c : coefficient) if (c != 0) terms++;
+    final int[] d = new int[terms], c = new int[terms];
+    for (int i = 0, k = 0; k < terms; i++)
+      if (coefficient[i] != 0) {
+        d[k] = i;
+        c[k++] = coefficient[i];
+      }
+    return new int[][] {d, c};
+  }
+
+  /**
+   * Tells whether this is the zero polynomial.
+   *
+   * @return {@code true} iff this polynomial is zero.
+   */
+  private boolean isZero() {
+    return coefficient.length == 0;
+  }
 
   /**
    * Returns the degree of this polynomial.
@@ -38,7 +195,8 @@ public class Poly {
    *     Poly}.
    */
   public int degree() {
-    return 0;
+    if (degree != null) return degree[degree.length - 1];
+    return isZero() ? 0 : coefficient.length - 1;
   }
 
   /**
@@ -48,7 +206,9 @@ public class Poly {
    * @return the coefficient of the considered term.
    */
   public int coeff(int d) {
-    return 0;
+    if (degree == null) return d < 0 || d >= coefficient.length ? 0 : coefficient[d];
+    final int i = Arrays.binarySearch(degree, d);
+    return i < 0 ? 0 : coefficient[i];
   }
 
   /**
@@ -61,7 +221,51 @@ public class Poly {
    * @throws NullPointerException if {@code q} is {@code null}.
    */
   public Poly add(Poly q) throws NullPointerException {
-    return null;
+    Objects.requireNonNull(q, "The polynomial must not be null.");
+    if (isZero()) return q;
+    if (q.isZero()) return this;
+    if (degree == null && q.degree == null) {
+      final int[] larger, smaller;
+      if (coefficient.length >= q.coefficient.length) {
+        larger = coefficient;
+        smaller = q.coefficient;
+      } else {
+        larger = q.coefficient;
+        smaller = coefficient;
+      }
+      final int[] result = Arrays.copyOf(larger, larger.length);
+      for (int i = 0; i < smaller.length; i++) result[i] += smaller[i];
+      return ofDense(result, result.length);
+    }
+    final Poly dense = degree == null ? this : q.degree == null ? q : null;
+    if (dense != null) {
+      final Poly sparse = dense == this ? q : this;
+      if (sparse.degree() < dense.coefficient.length) { // scatter the sparse terms in the dense
+        final int[] result = Arrays.copyOf(dense.coefficient, dense.coefficient.length);
+        for (int i = 0; i < sparse.degree.length; i++)
+          result[sparse.degree[i]] += sparse.coefficient[i];
+        return ofDense(result, result.length);
+      }
+    }
+    // merges the non-zero terms
+    final int[][] a = terms(), b = q.terms();
+    final int[] d = new int[a[0].length + b[0].length], c = new int[d.length];
+    int i = 0, j = 0, k = 0;
+    while (i < a[0].length || j < b[0].length) {
+      final int s;
+      if (j == b[0].length || (i < a[0].length && a[0][i] < b[0][j])) {
+        d[k] = a[0][i];
+        s = a[1][i++];
+      } else if (i == a[0].length || b[0][j] < a[0][i]) {
+        d[k] = b[0][j];
+        s = b[1][j++];
+      } else {
+        d[k] = a[0][i];
+        s = a[1][i++] + b[1][j++];
+      }
+      if (s != 0) c[k++] = s;
+    }
+    return ofSparse(d, c, k);
   }
 
   /**
@@ -69,12 +273,51 @@ public class Poly {
    *
    * <p>If \( p \) is this polynomial, returns \( p q \).
    *
+   * <p>Two dense polynomials are multiplied as {@link DensePoly}s are; otherwise the products of
+   * the non-zero terms are accumulated in a dense array if they are more than a quarter of the
+   * degree of the result, or else sorted by degree and summed.
+   *
    * @param q the polynomial to multiply by this one.
    * @return the product among this and the given polynomial.
    * @throws NullPointerException if {@code q} is {@code null}.
+   * @throws ArithmeticException if the degree of the product does not fit in an {@code int}.
    */
-  public Poly mul(Poly q) throws NullPointerException {
-    return null;
+  public Poly mul(Poly q) throws NullPointerException, ArithmeticException {
+    Objects.requireNonNull(q, "The polynomial must not be null.");
+    if (isZero() || q.isZero()) return new Poly();
+    final int top = Math.addExact(degree(), q.degree());
+    if (degree == null && q.degree == null) {
+      final int[] result = new int[top + 1];
+      DensePoly.multiply(
+          coefficient, 0, coefficient.length, q.coefficient, 0, q.coefficient.length, result, 0);
+      return ofDense(result, result.length);
+    }
+    final int[][] a = terms(), b = q.terms();
+    final int n = a[0].length, m = b[0].length;
+    if (top < 4L * n * m) {
+      final int[] result = new int[top + 1];
+      for (int i = 0; i < n; i++)
+        for (int j = 0; j < m; j++) result[a[0][i] + b[0][j]] += a[1][i] * b[1][j];
+      return ofDense(result, result.length);
+    }
+    // there are less than 2^29 products, packed with the degree in the high bits
+    final long[] product = new long[n * m];
+    for (int i = 0, k = 0; i < n; i++)
+      for (int j = 0; j < m; j++)
+        product[k++] = (long) (a[0][i] + b[0][j]) << 32 | (a[1][i] * b[1][j]) & 0xFFFFFFFFL;
+    Arrays.sort(product);
+    final int[] d = new int[product.length], c = new int[product.length];
+    int k = 0;
+    for (int i = 0; i < product.length; ) {
+      final int e = (int) (product[i] >>> 32);
+      int s = 0;
+      for (; i < product.length && (int) (product[i] >>> 32) == e; i++) s += (int) product[i];
+      if (s != 0) {
+        d[k] = e;
+        c[k++] = s;
+      }
+    }
+    return ofSparse(d, c, k);
   }
 
   /**
@@ -98,6 +341,8 @@ public class Poly {
    * @return this polynomial multiplied by \( -1 \).
    */
   public Poly minus() {
-    return null;
+    final int[] result = new int[coefficient.length];
+    for (int i = 0; i < coefficient.length; i++) result[i] = -coefficient[i];
+    return new Poly(result, degree); // the degrees are shared, since arrays are never modified
   }
 }
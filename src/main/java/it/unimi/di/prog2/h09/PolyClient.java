@@ -0,0 +1,83 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h09;
+
+import java.util.Scanner;
+
+/** A class to test some methods of {@link Poly}. */
+public class PolyClient {
+
+  /** . */
+  private PolyClient() {}
+
+  /**
+   * Returns a string representation of the given polynomial.
+   *
+   * @param poly the polynomial to represent as a string, must not be {@code null}.
+   * @return a string representation of the polynomial.
+   */
+  private static String asString(Poly poly) {
+    if (poly.degree() > 0) {
+      StringBuilder sb = new StringBuilder("Poly: ");
+      int c = poly.coeff(poly.degree());
+      if (c < -1) sb.append("-" + (-c));
+      else if (c == -1) sb.append("-");
+      else if (c > 1) sb.append(c);
+      sb.append("x" + (poly.degree() > 1 ? "^" + poly.degree() : ""));
+      for (int d = poly.degree() - 1; d > 0; d--) {
+        c = poly.coeff(d);
+        if (c == 0) continue;
+        if (c < -1) sb.append(" - " + (-c));
+        else if (c == -1) sb.append(" - ");
+        else if (c == 1) sb.append(" + ");
+        else sb.append(" + " + c);
+        sb.append("x" + (d > 1 ? "^" + d : ""));
+      }
+      c = poly.coeff(0);
+      if (c > 0) sb.append(" + " + c);
+      else if (c < 0) sb.append(" - " + (-c));
+      return sb.toString();
+    } else return "Poly: " + poly.coeff(0);
+  }
+
+  /**
+   * Tests some methods of {@link Poly}.
+   *
+   * <p>Starting from term \( t_0 = x - 1 \) reads a list of \( t_i \) of terms from the standard
+   * input, given as a (coefficient, degree) pairs, and computes the polynomials \( p_{i+1} = p_i
+   * \cdot t_i + t_i \) emitting the last computed polynomial \( p \) in the standard output,
+   * followed by \( p^2 - p \).
+   *
+   * @param args not used.
+   */
+  public static void main(String[] args) {
+    Poly result = new Poly(1, 1).add(new Poly(-1, 0));
+    try (Scanner s = new Scanner(System.in)) {
+      while (s.hasNextInt()) {
+        Poly term = new Poly(s.nextInt(), s.nextInt());
+        result = result.mul(term).add(term);
+      }
+    }
+    System.out.println(asString(result));
+    System.out.println(asString(result.mul(result).sub(result)));
+  }
+}
@@ -47,6 +47,12 @@ public class DensePoly { // we don't extend Cloneable, see EJ 3.13
    *    where coefficient[i] is the coefficient of x^i.
    */
 
+  /**
+   * The length of the shorter factor below which {@link #mul(DensePoly)} uses the schoolbook
+   * algorithm, instead of Karatsuba's.
+   */
+  private static final int KARATSUBA_THRESHOLD = 64;
+
   /** Initializes this to be the zero polynomial, that is \( p = 0 \). */
   public DensePoly() {
     coefficient = new int[0];
@@ -164,12 +170,72 @@ public class DensePoly { // we don't extend Cloneable, see EJ 3.13
     Objects.requireNonNull(q, "The polynomial must not be null.");
     if (isZero() || q.isZero()) return new DensePoly();
     int[] result = new int[degree() + q.degree() + 1];
-    for (int i = 0; i <= degree(); i++)
-      for (int j = 0; j <= q.degree(); j++)
-        result[i + j] = result[i + j] + coefficient[i] * q.coefficient[j];
+    multiply(coefficient, 0, coefficient.length, q.coefficient, 0, q.coefficient.length, result, 0);
     return new DensePoly(result);
   }
 
+  /**
+   * Adds the product of two polynomials, given as slices of coefficient arrays, to a slice of a
+   * result array.
+   *
+   * <p>Factors shorter than {@link #KARATSUBA_THRESHOLD} are multiplied with the schoolbook
+   * algorithm, longer ones with Karatsuba's, that replaces the four half-size products of the
+   * schoolbook algorithm with three, for a cost of \( O(n^{\log_2 3}) \). Unbalanced factors are
+   * multiplied by slicing the longer one in pieces as long as the shorter one.
+   *
+   * <p>Karatsuba's algorithm just adds, subtracts and multiplies, so it computes exactly the same
+   * coefficients of the schoolbook algorithm, even when the {@code int} arithmetic overflows.
+   *
+   * @param a the array of coefficients of the first factor.
+   * @param aOff the position in {@code a} of the first coefficient.
+   * @param aLen the number of coefficients of the first factor, must be positive.
+   * @param b the array of coefficients of the second factor.
+   * @param bOff the position in {@code b} of the first coefficient.
+   * @param bLen the number of coefficients of the second factor, must be positive.
+   * @param r the result array, with room for {@code aLen + bLen - 1} coefficients from {@code
+   *     rOff}.
+   * @param rOff the position in {@code r} where to add the coefficient of degree 0.
+   */
+  private static void multiply(
+      int[] a, int aOff, int aLen, int[] b, int bOff, int bLen, int[] r, int rOff) {
+    if (aLen < bLen) {
+      multiply(b, bOff, bLen, a, aOff, aLen, r, rOff);
+      return;
+    }
+    if (bLen < KARATSUBA_THRESHOLD) {
+      for (int i = 0; i < aLen; i++)
+        for (int j = 0; j < bLen; j++) r[rOff + i + j] += a[aOff + i] * b[bOff + j];
+      return;
+    }
+    if (aLen >= 2 * bLen) {
+      for (int i = 0; i < aLen; i += bLen)
+        multiply(a, aOff + i, Math.min(bLen, aLen - i), b, bOff, bLen, r, rOff + i);
+      return;
+    }
+    // a = a0 + a1 x^h, b = b0 + b1 x^h, where a0 and b0 have h coefficients
+    final int h = aLen / 2, a1Len = aLen - h, b1Len = bLen - h, bSumLen = Math.max(h, b1Len);
+    final int[] aSum = new int[a1Len], bSum = new int[bSumLen];
+    for (int i = 0; i < a1Len; i++) aSum[i] = (i < h ? a[aOff + i] : 0) + a[aOff + h + i];
+    for (int i = 0; i < bSumLen; i++)
+      bSum[i] = (i < h ? b[bOff + i] : 0) + (i < b1Len ? b[bOff + h + i] : 0);
+    final int[] low = new int[2 * h - 1], high = new int[a1Len + b1Len - 1];
+    final int[] middle = new int[a1Len + bSumLen - 1];
+    multiply(a, aOff, h, b, bOff, h, low, 0);
+    multiply(a, aOff + h, a1Len, b, bOff + h, b1Len, high, 0);
+    multiply(aSum, 0, a1Len, bSum, 0, bSumLen, middle, 0);
+    // a b = low + (middle - low - high) x^h + high x^2h
+    for (int i = 0; i < low.length; i++) {
+      r[rOff + i] += low[i];
+      middle[i] -= low[i];
+    }
+    for (int i = 0; i < high.length; i++) {
+      r[rOff + 2 * h + i] += high[i];
+      middle[i] -= high[i];
+    }
+    final int middleLen = Math.min(middle.length, aLen + bLen - 1 - h);
+    for (int i = 0; i < middleLen; i++) r[rOff + h + i] += middle[i];
+  }
+
   /**
    * Performs polynomial subtraction.
    *
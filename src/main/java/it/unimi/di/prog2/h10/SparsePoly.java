@@ -21,10 +21,15 @@ along with this file.  If not, see <https://www.gnu.org/licenses/>.
 
 package it.unimi.di.prog2.h10;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Objects;
+import java.util.PriorityQueue;
 
 /**
  * {@code SparsePoly}s are immutable polynomials with integer coefficients such that the number of
@@ -65,6 +70,12 @@ public class SparsePoly {
     }
   }
 
+  /**
+   * The number of terms times points from which {@link #evaluate(long[])} evaluates points in
+   * parallel.
+   */
+  private static final long PARALLEL_EVALUATION_THRESHOLD = 1 << 20;
+
   /** The array of terms (in increasing degree). */
   private final List<Term> terms;
 
@@ -204,6 +215,11 @@ public class SparsePoly {
    *
    * <p>If \( p \) is this polynomial, returns \( p q \).
    *
+   * <p>The terms of the product are generated in increasing degree order by merging, through a
+   * priority queue, the rows \( f_i g \), where \( f_i \) is the \( i \)-th term of the factor
+   * with less terms and \( g \) is the other factor (following S. C. Johnson); terms of the same
+   * degree come out consecutively, and are summed before being appended to the result.
+   *
    * @param q the polynomial to multiply by this one.
    * @return the product among this and the given polynomial.
    * @throws NullPointerException if {@code q} is {@code null}.
@@ -211,10 +227,27 @@ public class SparsePoly {
   public SparsePoly mul(SparsePoly q) throws NullPointerException {
     Objects.requireNonNull(q, "The polynomial to multiply cannot be null.");
     if (this.isZero() || q.isZero()) return new SparsePoly();
-    List<Term> lst = new LinkedList<>();
-    for (Term tq : q.terms)
-      for (Term tt : terms)
-        addTerm(lst, new Term(tq.coefficient * tt.coefficient, tq.degree + tt.degree));
+    final boolean shorter = terms.size() <= q.terms.size();
+    final Term[] f = (shorter ? terms : q.terms).toArray(new Term[0]);
+    final Term[] g = (shorter ? q.terms : terms).toArray(new Term[0]);
+    final int[] next = new int[f.length]; // next[i] is the index in g of the next term of row i
+    final Comparator<Integer> byKey = Comparator.comparingInt(i -> f[i].degree + g[next[i]].degree);
+    final PriorityQueue<Integer> rows = new PriorityQueue<>(f.length, byKey);
+    for (int i = 0; i < f.length; i++) rows.add(i);
+    List<Term> lst = new ArrayList<>();
+    int degree = -1, coefficient = 0;
+    while (!rows.isEmpty()) {
+      final int row = rows.remove(); // its key does not change while it is in the queue
+      final Term tf = f[row], tg = g[next[row]];
+      if (tf.degree + tg.degree != degree) {
+        if (coefficient != 0) lst.add(new Term(coefficient, degree));
+        degree = tf.degree + tg.degree;
+        coefficient = 0;
+      }
+      coefficient += tf.coefficient * tg.coefficient;
+      if (++next[row] < g.length) rows.add(row);
+    }
+    if (coefficient != 0) lst.add(new Term(coefficient, degree));
     return new SparsePoly(lst);
   }
 
@@ -245,4 +278,98 @@ public class SparsePoly {
     for (Term t : terms) lst.add(new Term(-t.coefficient, t.degree));
     return new SparsePoly(lst);
   }
+
+  /**
+   * Computes a power by repeated squaring, with {@code long} arithmetic.
+   *
+   * @param x the base.
+   * @param e the exponent, non negative.
+   * @return \( x^e \) (modulo \( 2^{64} \)).
+   */
+  private static long pow(long x, int e) {
+    long result = 1;
+    for (; e > 0; e >>= 1, x *= x) if ((e & 1) != 0) result *= x;
+    return result;
+  }
+
+  /**
+   * Computes a modular power by repeated squaring.
+   *
+   * @param x the base, in \( [0, \mathit{modulus}) \).
+   * @param e the exponent, non negative.
+   * @param modulus the modulus, at most {@code Integer.MAX_VALUE}.
+   * @return \( x^e \bmod \mathit{modulus} \).
+   */
+  private static long pow(long x, int e, long modulus) {
+    long result = 1 % modulus;
+    for (; e > 0; e >>= 1, x = x * x % modulus) if ((e & 1) != 0) result = result * x % modulus;
+    return result;
+  }
+
+  /**
+   * Evaluates this polynomial at a point.
+   *
+   * <p>The terms are processed as in Horner's rule, from the one of largest degree, raising the
+   * partial result to the gap between consecutive degrees by repeated squaring; the evaluation is
+   * performed with {@code long} arithmetic, hence, in case of overflow, the result is correct
+   * modulo \( 2^{64} \).
+   *
+   * @param x the point.
+   * @return the value of this polynomial at {@code x}.
+   */
+  public long evaluate(long x) {
+    if (isZero()) return 0;
+    long result = 0;
+    int previous = degree();
+    for (ListIterator<Term> it = terms.listIterator(terms.size()); it.hasPrevious(); ) {
+      final Term t = it.previous();
+      result = result * pow(x, previous - t.degree) + t.coefficient;
+      previous = t.degree;
+    }
+    return result * pow(x, previous);
+  }
+
+  /**
+   * Evaluates this polynomial at a point, modulo a given modulus (typically a prime).
+   *
+   * @param x the point.
+   * @param modulus the modulus.
+   * @return the value of this polynomial at {@code x}, modulo {@code modulus} (in \( [0,
+   *     \mathit{modulus}) \)).
+   * @throws IllegalArgumentException if {@code modulus} is not positive, or greater than {@code
+   *     Integer.MAX_VALUE}.
+   */
+  public long evaluate(long x, long modulus) throws IllegalArgumentException {
+    if (modulus <= 0 || modulus > Integer.MAX_VALUE)
+      throw new IllegalArgumentException("The modulus must be positive and fit in an int.");
+    if (isZero()) return 0;
+    final long y = Math.floorMod(x, modulus);
+    long result = 0;
+    int previous = degree();
+    for (ListIterator<Term> it = terms.listIterator(terms.size()); it.hasPrevious(); ) {
+      final Term t = it.previous();
+      final long c = Math.floorMod(t.coefficient, modulus);
+      result = (result * pow(y, previous - t.degree, modulus) + c) % modulus;
+      previous = t.degree;
+    }
+    return result * pow(y, previous, modulus) % modulus;
+  }
+
+  /**
+   * Evaluates this polynomial at many points.
+   *
+   * <p>If the overall work is large enough, points are evaluated in parallel.
+   *
+   * @param xs the points.
+   * @return the values of this polynomial at {@code xs}, as by {@link #evaluate(long)}.
+   * @throws NullPointerException if {@code xs} is {@code null}.
+   */
+  public long[] evaluate(long[] xs) throws NullPointerException {
+    Objects.requireNonNull(xs, "The points must not be null.");
+    final long[] result = new long[xs.length];
+    if ((long) xs.length * terms.size() >= PARALLEL_EVALUATION_THRESHOLD)
+      Arrays.parallelSetAll(result, i -> evaluate(xs[i]));
+    else for (int i = 0; i < xs.length; i++) result[i] = evaluate(xs[i]);
+    return result;
+  }
 }
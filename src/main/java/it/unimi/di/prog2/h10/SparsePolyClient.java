@@ -66,7 +66,15 @@ public class SparsePolyClient {
    * input, given as a (coefficient, degree) pairs, and computes the polynomials \( p_{i+1} = p_i
    * \codt t_i + t_i \) emitting the last computed polynomial in the standard output.
    *
-   * @param args not used.
+   * <p>If the first argument is {@code times}, the resulting polynomial is multiplied by the
+   * polynomial given by the following arguments, as (coefficient, degree) pairs, before being
+   * emitted. If it is {@code at}, the values of the resulting polynomial at the points given as the
+   * following arguments are emitted instead, one per line; if it is {@code mod}, the second
+   * argument is a modulus and the values are taken modulo it.
+   *
+   * @param args {@code times} followed by the terms of a polynomial to emit the product by such
+   *     polynomial, {@code at} followed by some points (or {@code mod} followed by a modulus and
+   *     some points) to emit its values, nothing otherwise.
    */
   public static void main(String[] args) {
     SparsePoly result = new SparsePoly(1, 1).add(new SparsePoly(-1, 0));
@@ -76,6 +84,26 @@ public class SparsePolyClient {
         result = result.mul(term).add(term);
       }
     }
+    if (args.length > 0 && args[0].equals("at")) {
+      long[] xs = new long[args.length - 1];
+      for (int i = 0; i < xs.length; i++) xs[i] = Long.parseLong(args[i + 1]);
+      for (long value : result.evaluate(xs)) System.out.println(value);
+      return;
+    }
+    if (args.length > 0 && args[0].equals("mod")) {
+      long modulus = Long.parseLong(args[1]);
+      for (int i = 2; i < args.length; i++)
+        System.out.println(result.evaluate(Long.parseLong(args[i]), modulus));
+      return;
+    }
+    if (args.length > 0 && args[0].equals("times")) {
+      SparsePoly factor = new SparsePoly();
+      for (int i = 1; i + 1 < args.length; i += 2) {
+        int c = Integer.parseInt(args[i]), d = Integer.parseInt(args[i + 1]);
+        factor = factor.add(new SparsePoly(c, d));
+      }
+      result = result.mul(factor);
+    }
     System.out.println(asString(result));
   }
 }
@@ -0,0 +1,106 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h11;
+
+/**
+ * The loops on arrays of coefficients that dominate the arithmetic of {@link DensePoly}.
+ *
+ * <p>Every operation is exact modulo \( 2^{32} \), as {@code int} arithmetic is. Two
+ * implementations are available: {@link ScalarKernels}, with plain loops, and {@code
+ * VectorKernels}, that uses the (incubating) Vector API and is compiled separately, in the {@code
+ * vector} source set; {@link #load()} chooses the latter only if it can be used.
+ */
+interface CoefficientKernels {
+
+  /** The fully qualified name of the implementation based on the Vector API. */
+  String VECTOR_KERNELS = "it.unimi.di.prog2.h11.VectorKernels";
+
+  /** The name of the module of the Vector API. */
+  String VECTOR_MODULE = "jdk.incubator.vector";
+
+  /**
+   * Returns the best available implementation.
+   *
+   * <p>The Vector API is used if its module has been added to the boot layer (for example with
+   * {@code --add-modules jdk.incubator.vector}) and the class implementing the kernels with it is
+   * on the class path; otherwise, the scalar loops are used.
+   *
+   * @return the implementation of the kernels to use.
+   */
+  static CoefficientKernels load() {
+    if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+      try {
+        return Class.forName(VECTOR_KERNELS)
+            .asSubclass(CoefficientKernels.class)
+            .getDeclaredConstructor()
+            .newInstance();
+      } catch (ReflectiveOperationException | LinkageError e) {
+        // the vector source set is not on the class path, or can't be linked: use the fallback
+      }
+    }
+    return new ScalarKernels();
+  }
+
+  /**
+   * Adds element-wise two arrays.
+   *
+   * @param a the first array.
+   * @param b the second array.
+   * @param r the result array, {@code r[i] = a[i] + b[i]} for \( 0 \leq i < n \).
+   * @param n the number of elements, at most the length of each array.
+   */
+  void add(int[] a, int[] b, int[] r, int n);
+
+  /**
+   * Subtracts element-wise two arrays.
+   *
+   * @param a the first array.
+   * @param b the second array.
+   * @param r the result array, {@code r[i] = a[i] - b[i]} for \( 0 \leq i < n \).
+   * @param n the number of elements, at most the length of each array.
+   */
+  void sub(int[] a, int[] b, int[] r, int n);
+
+  /**
+   * Negates a range of an array.
+   *
+   * @param a the array.
+   * @param r the result array, {@code r[i] = -a[i]} for {@code from <= i < to}.
+   * @param from the first index of the range.
+   * @param to the index following the last one of the range.
+   */
+  void negate(int[] a, int[] r, int from, int to);
+
+  /**
+   * Adds to a slice of an array a slice of another one, multiplied by a constant.
+   *
+   * <p>This is the inner loop of the schoolbook product, adding a row of partial products.
+   *
+   * @param c the constant.
+   * @param b the array to scale.
+   * @param bOff the position in {@code b} of the first element of the slice.
+   * @param r the result array, {@code r[rOff + j] += c * b[bOff + j]} for \( 0 \leq j < n \).
+   * @param rOff the position in {@code r} of the first element of the slice.
+   * @param n the number of elements of the slices.
+   */
+  void addScaled(int c, int[] b, int bOff, int[] r, int rOff, int n);
+}
@@ -21,8 +21,13 @@ along with this file.  If not, see <https://www.gnu.org/licenses/>.
 
 package it.unimi.di.prog2.h11;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
 
 /**
  * {@code DensePoly}s are immutable polynomials with integer coefficients.
@@ -34,19 +39,61 @@ public class DensePoly { // we don't extend Cloneable, see EJ 3.13
   /** The array of coefficients, the {@code coeff[i]} is the coefficient of \( x^i \). */
   private final int[] coefficient;
 
+  /** The number of coefficients in use (the array may be longer, see {@link Builder#build()}). */
+  private final int length;
+
   /*
    * RI:
    *
-   *  - coefficient != null
-   *  - if coefficient.length > 0, coefficient[coefficient.length - 1] != 0
+   *  - coefficient != null and 0 <= length <= coefficient.length
+   *  - if length > 0, coefficient[length - 1] != 0
+   *  - coefficient[i] == 0 for length <= i < coefficient.length
    *
    * AF:
    *
-   *  - the polynomial 0 is represented by an array of length 0,
-   *  - a polynomial of degree n is represented by an array of length n+1,
+   *  - the polynomial 0 is represented by length 0,
+   *  - a polynomial of degree n is represented by length n+1,
    *    where coefficient[i] is the coefficient of x^i.
    */
 
+  /**
+   * The length of the shorter factor below which {@link #mul(DensePoly)} uses the schoolbook
+   * algorithm, instead of Karatsuba's.
+   */
+  private static final int KARATSUBA_THRESHOLD = 64;
+
+  /**
+   * The length of the shorter factor from which {@link #mul(DensePoly)} uses the number-theoretic
+   * transform, instead of Karatsuba's algorithm.
+   */
+  private static final int NTT_THRESHOLD = 8192;
+
+  /**
+   * The primes used by the number-theoretic transform; each of them is \( c 2^k + 1 \) for \( k
+   * \geq 23 \), and has 3 as a primitive root.
+   */
+  private static final long[] NTT_PRIME = {998_244_353, 167_772_161, 469_762_049};
+
+  /** The maximum length of a product computed with the number-theoretic transform. */
+  private static final int NTT_MAX_LENGTH = 1 << 23;
+
+  /**
+   * The number of coefficients times points from which {@link #evaluate(long[])} works in parallel.
+   */
+  private static final long PARALLEL_EVALUATION_THRESHOLD = 1 << 22;
+
+  /**
+   * The minimum number of coefficients of the blocks in which {@link #parallelMul(DensePoly)}
+   * splits the longer factor.
+   */
+  private static final int PARALLEL_MIN_BLOCK = 1 << 12;
+
+  /**
+   * The loops on the coefficients used by addition, subtraction, negation and the schoolbook
+   * product: they use the Vector API, if available (see {@link CoefficientKernels#load()}).
+   */
+  private static final CoefficientKernels KERNELS = CoefficientKernels.load();
+
   // Prefer static factory methods to constructors (EJ 2.1, 2.3)
 
   /** The (only instance) of the zero polynomial. */
@@ -58,13 +105,27 @@ public class DensePoly { // we don't extend Cloneable, see EJ 3.13
    * <p>This constructor is partial, it's up to the factory methods to ensure that the
    * representation invariant is preserved.
    *
+   * <p>The array is not copied, hence it must not be referenced by anyone else.
+   *
    * @param coefficient the array of coefficients (must satisfy the representation invariant).
+   * @param length the number of coefficients in use.
    */
-  private DensePoly(int[] coefficient) {
+  private DensePoly(int[] coefficient, int length) {
     assert coefficient != null : "The coefficient array must not be null.";
-    assert coefficient.length == 0 || coefficient[coefficient.length - 1] != 0
+    assert 0 <= length && length <= coefficient.length : "The length must fit the array.";
+    assert length == 0 || coefficient[length - 1] != 0
         : "The last value of coefficient array, if present, must not be zero.";
-    this.coefficient = coefficient.clone();
+    this.coefficient = coefficient;
+    this.length = length;
+  }
+
+  /**
+   * Initializes the polynomial given an array of coefficients, all of them in use.
+   *
+   * @param coefficient the array of coefficients (must satisfy the representation invariant).
+   */
+  private DensePoly(int[] coefficient) {
+    this(coefficient, coefficient.length);
   }
 
   /**
@@ -75,7 +136,8 @@ public class DensePoly { // we don't extend Cloneable, see EJ 3.13
    */
   public DensePoly(DensePoly poly) throws NullPointerException {
     Objects.requireNonNull(poly, "The polynomial must not be null.");
-    this.coefficient = poly.coefficient.clone();
+    this.coefficient = Arrays.copyOf(poly.coefficient, poly.length);
+    this.length = poly.length;
   }
 
   /**
@@ -94,6 +156,19 @@ public class DensePoly { // we don't extend Cloneable, see EJ 3.13
     return degree == -1 ? ZERO : new DensePoly(Arrays.copyOf(coefficient, degree + 1));
   }
 
+  /**
+   * Returns a polynomial given a freshly allocated array of coefficients, that is used as the
+   * representation without copying it (its trailing zeros are just not in use).
+   *
+   * @param coefficient the array of coefficients, not referenced by anyone else.
+   * @return the polynomial represented by the given array of coefficients.
+   */
+  private static DensePoly wrap(int[] coefficient) {
+    int length = coefficient.length;
+    while (length > 0 && coefficient[length - 1] == 0) length--;
+    return length == 0 ? ZERO : new DensePoly(coefficient, length);
+  }
+
   /**
    * Initializes this to be the polynomial \(p = cx^n\).
    *
@@ -133,9 +208,8 @@ public class DensePoly { // we don't extend Cloneable, see EJ 3.13
    * @throws IllegalStateException if this is the zero polynomial.
    */
   public int degree() {
-    if (coefficient.length == 0)
-      throw new IllegalStateException("The zero polynomial has no degree.");
-    return coefficient.length - 1;
+    if (length == 0) throw new IllegalStateException("The zero polynomial has no degree.");
+    return length - 1;
   }
 
   /**
@@ -145,7 +219,7 @@ public class DensePoly { // we don't extend Cloneable, see EJ 3.13
    * @return the coefficient of the considered term.
    */
   public int coeff(int d) {
-    if (d < 0 || d >= coefficient.length) return 0;
+    if (d < 0 || d >= length) return 0;
     else return coefficient[d];
   }
 
@@ -162,20 +236,13 @@ public class DensePoly { // we don't extend Cloneable, see EJ 3.13
     Objects.requireNonNull(q, "The polynomial must not be null.");
     if (isZero()) return q;
     if (q.isZero()) return this;
-    final DensePoly larger, smaller;
-    if (degree() > q.degree()) {
-      larger = this;
-      smaller = q;
-    } else {
-      larger = q;
-      smaller = this;
-    }
-    int[] result = new int[larger.degree() + 1];
-    int i, j;
-    for (i = 0; i <= smaller.degree(); i++)
-      result[i] = smaller.coefficient[i] + larger.coefficient[i];
-    for (j = i; j <= larger.degree(); j++) result[j] = larger.coefficient[j];
-    return DensePoly.ofCoefficients(result);
+    final int[] a = coefficient, b = q.coefficient;
+    final int aLen = length, bLen = q.length, n = Math.min(aLen, bLen);
+    final int[] result = new int[Math.max(aLen, bLen)];
+    KERNELS.add(a, b, result, n);
+    if (aLen > n) System.arraycopy(a, n, result, n, aLen - n);
+    else System.arraycopy(b, n, result, n, bLen - n);
+    return wrap(result);
   }
 
   /**
@@ -190,11 +257,218 @@ public class DensePoly { // we don't extend Cloneable, see EJ 3.13
   public DensePoly mul(DensePoly q) throws NullPointerException {
     Objects.requireNonNull(q, "The polynomial must not be null.");
     if (isZero() || q.isZero()) return ZERO;
-    int[] result = new int[degree() + q.degree() + 1];
-    for (int i = 0; i <= degree(); i++)
-      for (int j = 0; j <= q.degree(); j++)
-        result[i + j] = result[i + j] + coefficient[i] * q.coefficient[j];
-    return DensePoly.ofCoefficients(result);
+    final int length = degree() + q.degree() + 1;
+    if (Math.min(this.length, q.length) >= NTT_THRESHOLD && length <= NTT_MAX_LENGTH)
+      return wrap(nttMultiply(q, length));
+    int[] result = new int[length];
+    multiply(coefficient, 0, this.length, q.coefficient, 0, q.length, result, 0);
+    return wrap(result);
+  }
+
+  /**
+   * Performs polynomial multiplication using all the threads of the common {@link ForkJoinPool}.
+   *
+   * <p>If \( p \) is this polynomial, returns \( p q \).
+   *
+   * <p>The longer factor is split in blocks (about four per thread, but not shorter than {@link
+   * #PARALLEL_MIN_BLOCK}), that are multiplied independently by the other factor with {@link
+   * #mul(DensePoly)}; the partial products are then shifted and summed. Since {@code int}
+   * arithmetic is exact modulo \( 2^{32} \), the result is identical to the one of {@link
+   * #mul(DensePoly)}, whatever the number of threads.
+   *
+   * @param q the polynomial to multiply by this one.
+   * @return the product among this and the given polynomial.
+   * @throws NullPointerException if {@code q} is {@code null}.
+   */
+  public DensePoly parallelMul(DensePoly q) throws NullPointerException {
+    Objects.requireNonNull(q, "The polynomial must not be null.");
+    if (isZero() || q.isZero()) return ZERO;
+    final DensePoly shorter = length < q.length ? this : q;
+    final DensePoly longer = shorter == this ? q : this;
+    final int[] a = longer.coefficient;
+    final int aLen = longer.length;
+    final int threads = ForkJoinPool.getCommonPoolParallelism();
+    final int block = Math.max(PARALLEL_MIN_BLOCK, (aLen + 4 * threads - 1) / (4 * threads));
+    final int blocks = (aLen + block - 1) / block;
+    if (blocks < 2) return mul(q);
+    final List<ForkJoinTask<DensePoly>> partial = new ArrayList<>(blocks);
+    for (int k = 0; k < blocks; k++) {
+      final int from = k * block, to = Math.min(aLen, from + block);
+      partial.add(ForkJoinTask.adapt(() -> wrap(Arrays.copyOfRange(a, from, to)).mul(shorter)));
+    }
+    ForkJoinTask.invokeAll(partial);
+    final int[] result = new int[aLen + shorter.length - 1];
+    for (int k = 0; k < blocks; k++) { // in a fixed order, although the sum is exact anyway
+      final DensePoly p = partial.get(k).join();
+      final int[] c = p.coefficient;
+      final int from = k * block;
+      for (int i = 0; i < p.length; i++) result[from + i] += c[i];
+    }
+    return wrap(result);
+  }
+
+  /**
+   * Computes the coefficients of the product of this polynomial and another one with the
+   * number-theoretic transform, in time \( O(n \log n) \).
+   *
+   * <p>The product is computed modulo each of the {@link #NTT_PRIME}s, whose product exceeds twice
+   * the absolute value of every coefficient of the exact product (as long as the shorter factor has
+   * less than \( 2^{23} \) coefficients); the coefficients are then rebuilt with the Chinese
+   * remainder theorem (in Garner's form) modulo \( 2^{32} \), hence they are exactly the ones
+   * computed, with {@code int} arithmetic, by the schoolbook algorithm.
+   *
+   * @param q the other polynomial, not zero.
+   * @param length the number of coefficients of the product, at most {@link #NTT_MAX_LENGTH}.
+   * @return the coefficients of the product, possibly with trailing zeros.
+   */
+  private int[] nttMultiply(DensePoly q, int length) {
+    final int n = Integer.highestOneBit(length - 1) << 1;
+    final int[][] residue = new int[NTT_PRIME.length][];
+    final long[] fa = new long[n], fb = new long[n];
+    for (int k = 0; k < NTT_PRIME.length; k++) {
+      final long p = NTT_PRIME[k];
+      Arrays.fill(fa, 0);
+      Arrays.fill(fb, 0);
+      for (int i = 0; i < this.length; i++) fa[i] = Math.floorMod(coefficient[i], p);
+      for (int i = 0; i < q.length; i++) fb[i] = Math.floorMod(q.coefficient[i], p);
+      ntt(fa, p, false);
+      ntt(fb, p, false);
+      for (int i = 0; i < n; i++) fa[i] = fa[i] * fb[i] % p;
+      ntt(fa, p, true);
+      residue[k] = new int[length];
+      for (int i = 0; i < length; i++) residue[k][i] = (int) fa[i];
+    }
+    final long p1 = NTT_PRIME[0], p2 = NTT_PRIME[1], p3 = NTT_PRIME[2];
+    final long p1InvP2 = modPow(p1 % p2, p2 - 2, p2), p12InvP3 = modPow(p1 * p2 % p3, p3 - 2, p3);
+    final int[] result = new int[length];
+    for (int i = 0; i < length; i++) {
+      // x = d1 + d2 p1 + d3 p1 p2, with 0 <= d1 < p1, 0 <= d2 < p2 and 0 <= d3 < p3
+      final long d1 = residue[0][i];
+      final long d2 = Math.floorMod(residue[1][i] - d1, p2) * p1InvP2 % p2;
+      final long d3 =
+          Math.floorMod(residue[2][i] - d1 - d2 * (p1 % p3) % p3, p3) * p12InvP3 % p3;
+      // if x >= p1 p2 p3 / 2 the coefficient is negative, namely x - p1 p2 p3; the (overflowing)
+      // long arithmetic is exact modulo 2^64, and hence modulo 2^32
+      result[i] = (int) (d1 + p1 * d2 + p1 * p2 * (2 * d3 < p3 ? d3 : d3 - p3));
+    }
+    return result;
+  }
+
+  /**
+   * Computes in place the number-theoretic transform, or its inverse, of a sequence.
+   *
+   * @param a the sequence, whose length is a power of two, with elements in \( [0, p) \).
+   * @param p one of the {@link #NTT_PRIME}s.
+   * @param inverse whether to compute the inverse transform.
+   */
+  private static void ntt(long[] a, long p, boolean inverse) {
+    final int n = a.length;
+    for (int i = 1, j = 0; i < n; i++) { // bit-reversal permutation
+      int bit = n >> 1;
+      for (; (j & bit) != 0; bit >>= 1) j ^= bit;
+      j ^= bit;
+      if (i < j) {
+        final long t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+      }
+    }
+    final long[] root = new long[Math.max(1, n / 2)];
+    for (int len = 2; len <= n; len <<= 1) {
+      final int half = len / 2;
+      final long w = modPow(3, inverse ? p - 1 - (p - 1) / len : (p - 1) / len, p);
+      root[0] = 1;
+      for (int k = 1; k < half; k++) root[k] = root[k - 1] * w % p;
+      for (int i = 0; i < n; i += len)
+        for (int k = 0; k < half; k++) {
+          final long u = a[i + k], v = a[i + k + half] * root[k] % p;
+          a[i + k] = u + v < p ? u + v : u + v - p;
+          a[i + k + half] = u >= v ? u - v : u - v + p;
+        }
+    }
+    if (inverse) {
+      final long nInv = modPow(n, p - 2, p);
+      for (int i = 0; i < n; i++) a[i] = a[i] * nInv % p;
+    }
+  }
+
+  /**
+   * Computes a modular power by repeated squaring.
+   *
+   * @param b the base, in \( [0, p) \).
+   * @param e the exponent, non negative.
+   * @param p the modulus, less than \( 2^{31} \).
+   * @return \( b^e \bmod p \).
+   */
+  private static long modPow(long b, long e, long p) {
+    long result = 1;
+    for (; e > 0; e >>= 1, b = b * b % p) if ((e & 1) != 0) result = result * b % p;
+    return result;
+  }
+
+  /**
+   * Adds the product of two polynomials, given as slices of coefficient arrays, to a slice of a
+   * result array.
+   *
+   * <p>Factors shorter than {@link #KARATSUBA_THRESHOLD} are multiplied with the schoolbook
+   * algorithm, longer ones with Karatsuba's, that replaces the four half-size products of the
+   * schoolbook algorithm with three, for a cost of \( O(n^{\log_2 3}) \). Unbalanced factors are
+   * multiplied by slicing the longer one in pieces as long as the shorter one.
+   *
+   * <p>Karatsuba's algorithm just adds, subtracts and multiplies, so it computes exactly the same
+   * coefficients of the schoolbook algorithm, even when the {@code int} arithmetic overflows.
+   *
+   * @param a the array of coefficients of the first factor.
+   * @param aOff the position in {@code a} of the first coefficient.
+   * @param aLen the number of coefficients of the first factor, must be positive.
+   * @param b the array of coefficients of the second factor.
+   * @param bOff the position in {@code b} of the first coefficient.
+   * @param bLen the number of coefficients of the second factor, must be positive.
+   * @param r the result array, with room for {@code aLen + bLen - 1} coefficients from {@code
+   *     rOff}.
+   * @param rOff the position in {@code r} where to add the coefficient of degree 0.
+   */
+  private static void multiply(
+      int[] a, int aOff, int aLen, int[] b, int bOff, int bLen, int[] r, int rOff) {
+    if (aLen < bLen) {
+      multiply(b, bOff, bLen, a, aOff, aLen, r, rOff);
+      return;
+    }
+    if (bLen < KARATSUBA_THRESHOLD) {
+      // adds a row at a time, scaled by a loop invariant, so that the inner loop can be vectorized
+      for (int i = 0; i < aLen; i++) {
+        final int c = a[aOff + i];
+        if (c != 0) KERNELS.addScaled(c, b, bOff, r, rOff + i, bLen);
+      }
+      return;
+    }
+    if (aLen >= 2 * bLen) {
+      for (int i = 0; i < aLen; i += bLen)
+        multiply(a, aOff + i, Math.min(bLen, aLen - i), b, bOff, bLen, r, rOff + i);
+      return;
+    }
+    // a = a0 + a1 x^h, b = b0 + b1 x^h, where a0 and b0 have h coefficients
+    final int h = aLen / 2, a1Len = aLen - h, b1Len = bLen - h, bSumLen = Math.max(h, b1Len);
+    final int[] aSum = new int[a1Len], bSum = new int[bSumLen];
+    for (int i = 0; i < a1Len; i++) aSum[i] = (i < h ? a[aOff + i] : 0) + a[aOff + h + i];
+    for (int i = 0; i < bSumLen; i++)
+      bSum[i] = (i < h ? b[bOff + i] : 0) + (i < b1Len ? b[bOff + h + i] : 0);
+    final int[] low = new int[2 * h - 1], high = new int[a1Len + b1Len - 1];
+    final int[] middle = new int[a1Len + bSumLen - 1];
+    multiply(a, aOff, h, b, bOff, h, low, 0);
+    multiply(a, aOff + h, a1Len, b, bOff + h, b1Len, high, 0);
+    multiply(aSum, 0, a1Len, bSum, 0, bSumLen, middle, 0);
+    // a b = low + (middle - low - high) x^h + high x^2h
+    for (int i = 0; i < low.length; i++) {
+      r[rOff + i] += low[i];
+      middle[i] -= low[i];
+    }
+    for (int i = 0; i < high.length; i++) {
+      r[rOff + 2 * h + i] += high[i];
+      middle[i] -= high[i];
+    }
+    final int middleLen = Math.min(middle.length, aLen + bLen - 1 - h);
+    for (int i = 0; i < middleLen; i++) r[rOff + h + i] += middle[i];
   }
 
   /**
@@ -210,7 +484,13 @@ public class DensePoly { // we don't extend Cloneable, see EJ 3.13
     Objects.requireNonNull(q, "The polynomial must not be null.");
     if (isZero()) return q.minus();
     if (q.isZero()) return this;
-    return add(q.minus());
+    final int[] a = coefficient, b = q.coefficient;
+    final int aLen = length, bLen = q.length, n = Math.min(aLen, bLen);
+    final int[] result = new int[Math.max(aLen, bLen)];
+    KERNELS.sub(a, b, result, n);
+    if (aLen > n) System.arraycopy(a, n, result, n, aLen - n);
+    else KERNELS.negate(b, result, n, bLen);
+    return wrap(result);
   }
 
   /**
@@ -222,9 +502,92 @@ public class DensePoly { // we don't extend Cloneable, see EJ 3.13
    */
   public DensePoly minus() {
     if (isZero()) return this;
-    int[] result = new int[coefficient.length];
-    for (int i = 0; i <= degree(); i++) result[i] = -coefficient[i];
-    return DensePoly.ofCoefficients(result);
+    final int[] result = new int[length];
+    KERNELS.negate(coefficient, result, 0, length);
+    return new DensePoly(result); // the leading coefficient stays non-zero
+  }
+
+  /**
+   * Evaluates this polynomial at a point, by Horner's rule.
+   *
+   * <p>The evaluation is performed with {@code long} arithmetic, hence, in case of overflow, the
+   * result is correct modulo \( 2^{64} \).
+   *
+   * @param x the point.
+   * @return the value of this polynomial at {@code x}.
+   */
+  public long evaluate(long x) {
+    long result = 0;
+    for (int i = length - 1; i >= 0; i--) result = result * x + coefficient[i];
+    return result;
+  }
+
+  /**
+   * Evaluates this polynomial at a point, modulo a given modulus (typically a prime).
+   *
+   * @param x the point.
+   * @param modulus the modulus.
+   * @return the value of this polynomial at {@code x}, modulo {@code modulus} (in \( [0,
+   *     \mathit{modulus}) \)).
+   * @throws IllegalArgumentException if {@code modulus} is not positive, or greater than {@code
+   *     Integer.MAX_VALUE}.
+   */
+  public long evaluate(long x, long modulus) throws IllegalArgumentException {
+    if (modulus <= 0 || modulus > Integer.MAX_VALUE)
+      throw new IllegalArgumentException("The modulus must be positive and fit in an int.");
+    final long y = Math.floorMod(x, modulus);
+    long result = 0;
+    for (int i = length - 1; i >= 0; i--)
+      result = (result * y + Math.floorMod(coefficient[i], modulus)) % modulus;
+    return result;
+  }
+
+  /**
+   * Evaluates this polynomial at many points.
+   *
+   * <p>Points are evaluated four at a time, so that a single pass over the coefficients advances
+   * four independent Horner's rules; if the overall work is large enough, groups of points are
+   * evaluated in parallel.
+   *
+   * @param xs the points.
+   * @return the values of this polynomial at {@code xs}, as by {@link #evaluate(long)}.
+   * @throws NullPointerException if {@code xs} is {@code null}.
+   */
+  public long[] evaluate(long[] xs) throws NullPointerException {
+    Objects.requireNonNull(xs, "The points must not be null.");
+    final long[] result = new long[xs.length];
+    final int groups = (xs.length + 3) / 4;
+    if ((long) xs.length * length >= PARALLEL_EVALUATION_THRESHOLD)
+      IntStream.range(0, groups).parallel().forEach(g -> evaluate(xs, result, 4 * g));
+    else for (int g = 0; g < groups; g++) evaluate(xs, result, 4 * g);
+    return result;
+  }
+
+  /**
+   * Evaluates this polynomial at (up to) four consecutive points.
+   *
+   * @param xs the points.
+   * @param result where to store the values.
+   * @param from the index of the first point to evaluate.
+   */
+  private void evaluate(long[] xs, long[] result, int from) {
+    if (from + 4 > xs.length) {
+      for (int i = from; i < xs.length; i++) result[i] = evaluate(xs[i]);
+      return;
+    }
+    final long x0 = xs[from], x1 = xs[from + 1], x2 = xs[from + 2], x3 = xs[from + 3];
+    long r0 = 0, r1 = 0, r2 = 0, r3 = 0;
+    for (int i = length - 1; i >= 0; i--) {
+      final int c = coefficient[i];
+      r0 = r0 * x0 + c;
+      r1 = r1 * x1 + c;
+      r2 = r2 * x2 + c;
+      r3 = r3 * x3 + c;
+    }
+    result[from] = r0;
+    result[from + 1] = r1;
+    result[from + 2] = r2;
+    result[from + 3] = r3;
   }
 
   // Methods inherited from Object
@@ -256,13 +619,227 @@ public class DensePoly { // we don't extend Cloneable, see EJ 3.13
 
   @Override
   public int hashCode() {
-    return Arrays.hashCode(coefficient);
+    int result = 1; // as Arrays.hashCode, on the coefficients in use
+    for (int i = 0; i < length; i++) result = 31 * result + coefficient[i];
+    return result;
   }
 
   @Override
   public boolean equals(Object obj) {
     if (this == obj) return true;
     if (!(obj instanceof DensePoly other)) return false;
-    return Arrays.equals(coefficient, other.coefficient);
+    return Arrays.equals(coefficient, 0, length, other.coefficient, 0, other.length);
+  }
+
+  /**
+   * A mutable polynomial, to accumulate the result of a long sequence of operations without
+   * allocating a new {@link DensePoly} at every step (see EJ 2.2 and 4.17).
+   *
+   * <p>The coefficients are kept in an array whose capacity grows geometrically, so that adding
+   * terms and multiplying by monomials or short polynomials happen in place. The {@link #build()}
+   * method hands the array over to the returned {@link DensePoly} in constant time, without copying
+   * it (the unused capacity remains part of the representation of the polynomial, unless {@link
+   * #trimToSize()} is called before).
+   */
+  public static class Builder {
+
+    /** The coefficients, {@code coefficient[i]} is the coefficient of \( x^i \). */
+    private int[] coefficient;
+
+    /** The number of coefficients in use. */
+    private int length;
+
+    /*-
+     * RI:
+     *
+     *  - coefficient != null and 0 <= length <= coefficient.length
+     *  - if length > 0, coefficient[length - 1] != 0
+     *  - coefficient[i] == 0 for length <= i < coefficient.length
+     *
+     * AF:
+     *
+     *  AF(coefficient, length) = sum of coefficient[i] x^i, for 0 <= i < length
+     */
+
+    /** Initializes this to be the zero polynomial. */
+    public Builder() {
+      this(0);
+    }
+
+    /**
+     * Initializes this to be the zero polynomial, with room for the given number of coefficients.
+     *
+     * @param capacity the initial capacity.
+     * @throws IllegalArgumentException if {@code capacity} is negative.
+     */
+    public Builder(int capacity) throws IllegalArgumentException {
+      if (capacity < 0) throw new IllegalArgumentException("The capacity must not be negative.");
+      coefficient = new int[capacity];
+    }
+
+    /**
+     * Initializes this to be the given polynomial.
+     *
+     * @param poly the polynomial.
+     * @throws NullPointerException if {@code poly} is {@code null}.
+     */
+    public Builder(DensePoly poly) throws NullPointerException {
+      Objects.requireNonNull(poly, "The polynomial must not be null.");
+      coefficient = Arrays.copyOf(poly.coefficient, poly.length);
+      length = poly.length;
+    }
+
+    /**
+     * Makes sure that the given number of coefficients can be stored without reallocations.
+     *
+     * @param capacity the required capacity.
+     */
+    public void ensureCapacity(int capacity) {
+      if (capacity > coefficient.length)
+        coefficient =
+            Arrays.copyOf(
+                coefficient, Math.max(capacity, coefficient.length + (coefficient.length >> 1)));
+    }
+
+    /** Reduces the capacity to the number of coefficients in use. */
+    public void trimToSize() {
+      if (length < coefficient.length) coefficient = Arrays.copyOf(coefficient, length);
+    }
+
+    /**
+     * Checks whether this is the zero polynomial.
+     *
+     * @return {@code true} if this is the zero polynomial, {@code false} otherwise.
+     */
+    public boolean isZero() {
+      return length == 0;
+    }
+
+    /** Restores the representation invariant by dropping the leading zero coefficients. */
+    private void trim() {
+      while (length > 0 && coefficient[length - 1] == 0) length--;
+    }
+
+    /** Makes this the zero polynomial, keeping its capacity. */
+    private void clear() {
+      Arrays.fill(coefficient, 0, length, 0);
+      length = 0;
+    }
+
+    /**
+     * Adds the term \( cx^n \) to this polynomial.
+     *
+     * @param c the coefficient.
+     * @param n the degree.
+     * @return this builder.
+     * @throws IllegalArgumentException if {@code n} &lt; 0.
+     */
+    public Builder addInPlace(int c, int n) throws IllegalArgumentException {
+      if (n < 0) throw new IllegalArgumentException("Can't add a monomial with negative exponent");
+      if (c == 0) return this;
+      ensureCapacity(n + 1);
+      coefficient[n] += c;
+      if (n >= length) length = n + 1;
+      trim();
+      return this;
+    }
+
+    /**
+     * Adds the given polynomial to this one.
+     *
+     * @param q the polynomial to add.
+     * @return this builder.
+     * @throws NullPointerException if {@code q} is {@code null}.
+     */
+    public Builder addInPlace(DensePoly q) throws NullPointerException {
+      Objects.requireNonNull(q, "The polynomial must not be null.");
+      final int[] b = q.coefficient;
+      ensureCapacity(q.length);
+      for (int i = 0; i < q.length; i++) coefficient[i] += b[i];
+      length = Math.max(length, q.length);
+      trim();
+      return this;
+    }
+
+    /**
+     * Multiplies this polynomial by the monomial \( cx^n \).
+     *
+     * @param c the coefficient.
+     * @param n the degree.
+     * @return this builder.
+     * @throws IllegalArgumentException if {@code n} &lt; 0.
+     */
+    public Builder mulByMonomialInPlace(int c, int n) throws IllegalArgumentException {
+      if (n < 0)
+        throw new IllegalArgumentException("Can't multiply by a monomial with negative exponent");
+      if (length == 0) return this;
+      if (c == 0) {
+        clear();
+        return this;
+      }
+      ensureCapacity(length + n);
+      System.arraycopy(coefficient, 0, coefficient, n, length);
+      Arrays.fill(coefficient, 0, Math.min(n, length), 0);
+      length += n;
+      if (c != 1) for (int i = n; i < length; i++) coefficient[i] *= c;
+      trim();
+      return this;
+    }
+
+    /**
+     * Multiplies this polynomial by the given one.
+     *
+     * <p>If one of the polynomials is shorter than {@link #KARATSUBA_THRESHOLD} the product is
+     * computed in place with the schoolbook algorithm, otherwise it is computed by {@link
+     * DensePoly#mul(DensePoly)}, whose result becomes the representation of this builder.
+     *
+     * @param q the polynomial to multiply by.
+     * @return this builder.
+     * @throws NullPointerException if {@code q} is {@code null}.
+     */
+    public Builder mulInPlace(DensePoly q) throws NullPointerException {
+      Objects.requireNonNull(q, "The polynomial must not be null.");
+      if (length == 0) return this;
+      if (q.isZero()) {
+        clear();
+        return this;
+      }
+      final int[] b = q.coefficient;
+      final int m = q.length;
+      if (length >= KARATSUBA_THRESHOLD && m >= KARATSUBA_THRESHOLD) {
+        // this polynomial is used only during the call, the product is a fresh array
+        final DensePoly product = new DensePoly(coefficient, length).mul(q);
+        coefficient = product.coefficient;
+        length = product.length;
+        return this;
+      }
+      ensureCapacity(length + m - 1);
+      // the coefficient of degree k of the product depends only on the coefficients of degree at
+      // most k of this polynomial, hence they can be overwritten from the highest degree down
+      for (int k = length + m - 2; k >= 0; k--) {
+        int sum = 0;
+        for (int i = Math.max(0, k - m + 1), last = Math.min(k, length - 1); i <= last; i++)
+          sum += coefficient[i] * b[k - i];
+        coefficient[k] = sum;
+      }
+      length += m - 1;
+      trim();
+      return this;
+    }
+
+    /**
+     * Returns the polynomial built so far, and makes this builder the zero polynomial.
+     *
+     * <p>The array is handed over to the returned polynomial in constant time, without copying it,
+     * and this builder starts over with no capacity.
+     *
+     * @return the polynomial.
+     */
+    public DensePoly build() {
+      final DensePoly result = length == 0 ? ZERO : new DensePoly(coefficient, length);
+      coefficient = new int[0];
+      length = 0;
+      return result;
+    }
   }
 }
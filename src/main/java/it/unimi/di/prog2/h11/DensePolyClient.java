@@ -36,7 +36,15 @@ public class DensePolyClient {
    * given as a (coefficient, degree) pairs, and computes the polynomial \( t_0 + t_1 + t_2 \cdots
    * \), emitting the resulting polynomial in the standard output.
    *
-   * @param args not used.
+   * <p>If the first argument is {@code square}, the square of the resulting polynomial is emitted
+   * instead (computed in parallel if the argument is {@code parallel-square}); if it is {@code
+   * at}, the values of the resulting polynomial at the points given as the following arguments are
+   * emitted instead, one per line; if it is {@code mod}, the second argument is a modulus and the
+   * values are taken modulo it.
+   *
+   * @param args {@code square} or {@code parallel-square} to emit the square of the polynomial,
+   *     {@code at} followed by some points (or {@code mod} followed by a modulus and some
+   *     points) to emit its values, nothing otherwise.
    */
   public static void main(String[] args) {
     DensePoly result = DensePoly.ZERO;
@@ -46,6 +54,20 @@ public class DensePolyClient {
         result = result.add(term);
       }
     }
+    if (args.length > 0 && args[0].equals("at")) {
+      long[] xs = new long[args.length - 1];
+      for (int i = 0; i < xs.length; i++) xs[i] = Long.parseLong(args[i + 1]);
+      for (long value : result.evaluate(xs)) System.out.println(value);
+      return;
+    }
+    if (args.length > 0 && args[0].equals("mod")) {
+      long modulus = Long.parseLong(args[1]);
+      for (int i = 2; i < args.length; i++)
+        System.out.println(result.evaluate(Long.parseLong(args[i]), modulus));
+      return;
+    }
+    if (args.length > 0 && args[0].equals("square")) result = result.mul(result);
+    if (args.length > 0 && args[0].equals("parallel-square")) result = result.parallelMul(result);
     System.out.println(result);
   }
 }
@@ -0,0 +1,355 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h11;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * {@code ModularDensePoly}s are immutable polynomials with coefficients in \(
+ * \mathbb{Z}/p\mathbb{Z} \), for a modulus \( p \) (typically a prime) that fits in an {@code
+ * int}.
+ *
+ * <p>A typical {@code Poly} is \( p = c_0 + c_1 x + c_2 x^2 + \cdots + c_n x^n \), where every
+ * coefficient is in \( [0, p) \).
+ *
+ * <p>Differently from {@link DensePoly}, operations never overflow. In multiplication, the products
+ * of coefficients (that are less than \( p^2 &lt; 2^{62} \)) are accumulated in a {@code long},
+ * subtracting a fixed multiple of \( p^2 \) only when the sum grows too large; each coefficient of
+ * the result is then reduced just once, by Barrett's method (that replaces the division by \( p \)
+ * with a multiplication by a precomputed approximation of \( 2^{64}/p \)).
+ */
+public class ModularDensePoly {
+
+  /** The modulus. */
+  private final int modulus;
+
+  /** The approximation of \( 2^{64} / \mathit{modulus} \) used by Barrett's reduction. */
+  private final long barrett;
+
+  /** The array of coefficients, the {@code coeff[i]} is the coefficient of \( x^i \). */
+  private final int[] coefficient;
+
+  /*
+   * RI:
+   *
+   *  - modulus >= 2, barrett == floor((2^64 - 1) / modulus)
+   *  - coefficient != null, and 0 <= coefficient[i] < modulus for every i
+   *  - if coefficient.length > 0, coefficient[coefficient.length - 1] != 0
+   *
+   * AF:
+   *
+   *  - the polynomial 0 is represented by an array of length 0,
+   *  - a polynomial of degree n is represented by an array of length n+1,
+   *    where coefficient[i] is the coefficient of x^i (modulo modulus).
+   */
+
+  /**
+   * Initializes the polynomial given its modulus and an array of coefficients.
+   *
+   * <p>This constructor is partial, it's up to the factory methods to ensure that the
+   * representation invariant is preserved; the array is not copied.
+   *
+   * @param modulus the modulus (must satisfy the representation invariant).
+   * @param coefficient the array of coefficients (must satisfy the representation invariant).
+   */
+  private ModularDensePoly(int modulus, int[] coefficient) {
+    assert modulus >= 2 : "The modulus must be at least 2.";
+    assert coefficient.length == 0 || coefficient[coefficient.length - 1] != 0
+        : "The last value of coefficient array, if present, must not be zero.";
+    this.modulus = modulus;
+    this.barrett = Long.divideUnsigned(-1L, modulus);
+    this.coefficient = coefficient;
+  }
+
+  /**
+   * Checks that a modulus is valid.
+   *
+   * @param modulus the modulus.
+   * @throws IllegalArgumentException if {@code modulus} &lt; 2.
+   */
+  private static void checkModulus(int modulus) throws IllegalArgumentException {
+    if (modulus < 2) throw new IllegalArgumentException("The modulus must be at least 2.");
+  }
+
+  /**
+   * Returns the zero polynomial with the given modulus.
+   *
+   * @param modulus the modulus.
+   * @return the polynomial \( p = 0 \).
+   * @throws IllegalArgumentException if {@code modulus} &lt; 2.
+   */
+  public static ModularDensePoly zero(int modulus) throws IllegalArgumentException {
+    checkModulus(modulus);
+    return new ModularDensePoly(modulus, new int[0]);
+  }
+
+  /**
+   * Initializes a polynomial given its modulus and an array of coefficients.
+   *
+   * <p>The coefficients are reduced modulo {@code modulus}, and the array can have trailing zeros,
+   * they will not be considered in the representation of the polynomial.
+   *
+   * @param coefficient the array of coefficients.
+   * @param modulus the modulus.
+   * @return the polynomial represented by the given array of coefficients.
+   * @throws NullPointerException if {@code coefficient} is {@code null}.
+   * @throws IllegalArgumentException if {@code modulus} &lt; 2.
+   */
+  public static ModularDensePoly ofCoefficients(int[] coefficient, int modulus)
+      throws NullPointerException, IllegalArgumentException {
+    Objects.requireNonNull(coefficient, "The coefficient array must not be null.");
+    checkModulus(modulus);
+    final int[] reduced = new int[coefficient.length];
+    for (int i = 0; i < coefficient.length; i++)
+      reduced[i] = Math.floorMod(coefficient[i], modulus);
+    return trim(modulus, reduced, reduced.length);
+  }
+
+  /**
+   * Initializes this to be the polynomial \(p = cx^n\).
+   *
+   * @param c the coefficient (that is reduced modulo {@code modulus}).
+   * @param n the degree.
+   * @param modulus the modulus.
+   * @return the polynomial \( p = cx^n \).
+   * @throws IllegalArgumentException if {@code n} &lt; 0, or {@code modulus} &lt; 2.
+   */
+  public static ModularDensePoly ofCoefficientDegree(int c, int n, int modulus)
+      throws IllegalArgumentException {
+    if (n < 0) throw new IllegalArgumentException("Can't create a monomial with negative exponent");
+    checkModulus(modulus);
+    c = Math.floorMod(c, modulus);
+    if (c == 0) return new ModularDensePoly(modulus, new int[0]);
+    final int[] coefficient = new int[n + 1];
+    coefficient[n] = c;
+    return new ModularDensePoly(modulus, coefficient);
+  }
+
+  /**
+   * Returns a polynomial given the first coefficients of an array of reduced coefficients.
+   *
+   * @param modulus the modulus.
+   * @param coefficient the array of coefficients, in \( [0, \mathit{modulus}) \).
+   * @param length the number of coefficients to consider (possibly followed by zeros).
+   * @return the polynomial.
+   */
+  private static ModularDensePoly trim(int modulus, int[] coefficient, int length) {
+    while (length > 0 && coefficient[length - 1] == 0) length--;
+    return new ModularDensePoly(
+        modulus,
+        length == coefficient.length ? coefficient : Arrays.copyOf(coefficient, length));
+  }
+
+  /**
+   * Returns the modulus of this polynomial.
+   *
+   * @return the modulus.
+   */
+  public int modulus() {
+    return modulus;
+  }
+
+  /**
+   * Checks whether this polynomial is the zero polynomial.
+   *
+   * @return {@code true} if this polynomial is the zero polynomial, {@code false} otherwise.
+   */
+  public boolean isZero() {
+    return coefficient.length == 0;
+  }
+
+  /**
+   * Returns the degree of this polynomial.
+   *
+   * <p>The degree is defined as the largest exponent with a non-zero coefficient.
+   *
+   * @return the largest exponent with a non-zero coefficient.
+   * @throws IllegalStateException if this is the zero polynomial.
+   */
+  public int degree() {
+    if (coefficient.length == 0)
+      throw new IllegalStateException("The zero polynomial has no degree.");
+    return coefficient.length - 1;
+  }
+
+  /**
+   * Returns the coefficient of the term of given exponent.
+   *
+   * @param d the exponent of the term to consider.
+   * @return the coefficient of the considered term, in \( [0, \mathit{modulus}) \).
+   */
+  public int coeff(int d) {
+    if (d < 0 || d >= coefficient.length) return 0;
+    else return coefficient[d];
+  }
+
+  /**
+   * Checks that another polynomial has the same modulus of this one.
+   *
+   * @param q the other polynomial.
+   * @throws NullPointerException if {@code q} is {@code null}.
+   * @throws IllegalArgumentException if the moduli differ.
+   */
+  private void checkSameModulus(ModularDensePoly q)
+      throws NullPointerException, IllegalArgumentException {
+    Objects.requireNonNull(q, "The polynomial must not be null.");
+    if (q.modulus != modulus)
+      throw new IllegalArgumentException("The polynomials must have the same modulus.");
+  }
+
+  /**
+   * Reduces a non negative {@code long} by Barrett's method.
+   *
+   * @param x the value to reduce, non negative.
+   * @return \( x \bmod \mathit{modulus} \).
+   */
+  private int reduce(long x) {
+    // since barrett <= 2^64 / modulus, the quotient q is at most one less than the exact one
+    final long q = Math.multiplyHigh(x, barrett);
+    final long r = x - q * modulus;
+    return (int) (r >= modulus ? r - modulus : r);
+  }
+
+  /**
+   * Performs polynomial addition.
+   *
+   * <p>If \( p \) is this polynomial, returns \( p + q \).
+   *
+   * @param q the polynomial to add to this one.
+   * @return the sum among this and the given polynomial.
+   * @throws NullPointerException if {@code q} is {@code null}.
+   * @throws IllegalArgumentException if {@code q} has a different modulus.
+   */
+  public ModularDensePoly add(ModularDensePoly q)
+      throws NullPointerException, IllegalArgumentException {
+    checkSameModulus(q);
+    if (isZero()) return q;
+    if (q.isZero()) return this;
+    final int[] result =
+        Arrays.copyOf(coefficient, Math.max(coefficient.length, q.coefficient.length));
+    for (int i = 0; i < q.coefficient.length; i++) {
+      final int s = result[i] - (modulus - q.coefficient[i]);
+      result[i] = s < 0 ? s + modulus : s;
+    }
+    return trim(modulus, result, result.length);
+  }
+
+  /**
+   * Performs polynomial subtraction.
+   *
+   * <p>If \( p \) is this polynomial, returns \( p - q \).
+   *
+   * @param q the polynomial to subtract from this one.
+   * @return the subtraction among this and the given polynomial.
+   * @throws NullPointerException if {@code q} is {@code null}.
+   * @throws IllegalArgumentException if {@code q} has a different modulus.
+   */
+  public ModularDensePoly sub(ModularDensePoly q)
+      throws NullPointerException, IllegalArgumentException {
+    checkSameModulus(q);
+    if (q.isZero()) return this;
+    final int[] result =
+        Arrays.copyOf(coefficient, Math.max(coefficient.length, q.coefficient.length));
+    for (int i = 0; i < q.coefficient.length; i++) {
+      final int s = result[i] - q.coefficient[i];
+      result[i] = s < 0 ? s + modulus : s;
+    }
+    return trim(modulus, result, result.length);
+  }
+
+  /**
+   * Returns the negate polynomial.
+   *
+   * <p>If \( p \) is this polynomial, returns \( -p \).
+   *
+   * @return this polynomial multiplied by \( -1 \).
+   */
+  public ModularDensePoly minus() {
+    if (isZero()) return this;
+    final int[] result = new int[coefficient.length];
+    for (int i = 0; i < coefficient.length; i++)
+      result[i] = coefficient[i] == 0 ? 0 : modulus - coefficient[i];
+    return new ModularDensePoly(modulus, result);
+  }
+
+  /**
+   * Performs polynomial multiplication.
+   *
+   * <p>If \( p \) is this polynomial, returns \( p q \).
+   *
+   * @param q the polynomial to multiply by this one.
+   * @return the product among this and the given polynomial.
+   * @throws NullPointerException if {@code q} is {@code null}.
+   * @throws IllegalArgumentException if {@code q} has a different modulus.
+   */
+  public ModularDensePoly mul(ModularDensePoly q)
+      throws NullPointerException, IllegalArgumentException {
+    checkSameModulus(q);
+    if (isZero() || q.isZero()) return isZero() ? this : q;
+    final int[] a = coefficient, b = q.coefficient;
+    final long square = (long) modulus * modulus;
+    // the largest multiple of the square such that adding a product to a smaller sum can't overflow
+    final long limit = (Long.MAX_VALUE / square - 1) * square;
+    final int[] result = new int[a.length + b.length - 1];
+    for (int k = 0; k < result.length; k++) {
+      long sum = 0;
+      final int last = Math.min(k, a.length - 1);
+      for (int i = Math.max(0, k - b.length + 1); i <= last; i++) {
+        sum += (long) a[i] * b[k - i];
+        if (sum >= limit) sum -= limit;
+      }
+      result[k] = reduce(sum);
+    }
+    return trim(modulus, result, result.length);
+  }
+
+  // Methods inherited from Object
+
+  @Override
+  public String toString() {
+    if (isZero()) return "ModularDensePoly: 0 (mod " + modulus + ")";
+    StringBuilder sb = new StringBuilder("ModularDensePoly: ");
+    boolean first = true;
+    for (int d = degree(); d >= 0; d--) {
+      final int c = coefficient[d];
+      if (c == 0) continue;
+      if (!first) sb.append(" + ");
+      first = false;
+      if (c != 1 || d == 0) sb.append(c);
+      if (d > 0) sb.append("x" + (d > 1 ? "^" + d : ""));
+    }
+    return sb.append(" (mod ").append(modulus).append(")").toString();
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * modulus + Arrays.hashCode(coefficient);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) return true;
+    if (!(obj instanceof ModularDensePoly other)) return false;
+    return modulus == other.modulus && Arrays.equals(coefficient, other.coefficient);
+  }
+}
@@ -0,0 +1,56 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h11;
+
+import java.util.Scanner;
+
+/** A class to test some methods of {@link ModularDensePoly}. */
+public class ModularDensePolyClient {
+
+  /** . */
+  private ModularDensePolyClient() {}
+
+  /**
+   * Tests some methods of {@link ModularDensePoly}.
+   *
+   * <p>Starting from term \( t_0 = 0 \) reads a list of \( t_i \) of terms from the standard input,
+   * given as a (coefficient, degree) pairs, and computes the polynomial \( p = t_0 + t_1 + t_2
+   * \cdots \) modulo the first argument; then emits in the standard output \( p \), \( p^2 \) and
+   * \( p^2 - p \).
+   *
+   * @param args the modulus.
+   */
+  public static void main(String[] args) {
+    final int modulus = Integer.parseInt(args[0]);
+    ModularDensePoly result = ModularDensePoly.zero(modulus);
+    try (Scanner s = new Scanner(System.in)) {
+      while (s.hasNextInt()) {
+        final int c = s.nextInt(), n = s.nextInt();
+        result = result.add(ModularDensePoly.ofCoefficientDegree(c, n, modulus));
+      }
+    }
+    final ModularDensePoly square = result.mul(result);
+    System.out.println(result);
+    System.out.println(square);
+    System.out.println(square.sub(result));
+  }
+}
@@ -0,0 +1,54 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h11;
+
+/**
+ * The {@link CoefficientKernels} written as plain counted loops.
+ *
+ * <p>This is the fallback used when the Vector API is not available; the JIT compiler may still
+ * turn the loops into SIMD instructions by itself.
+ */
+final class ScalarKernels implements CoefficientKernels {
+
+  /** . */
+  ScalarKernels() {}
+
+  @Override
+  public void add(int[] a, int[] b, int[] r, int n) {
+    for (int i = 0; i < n; i++) r[i] = a[i] + b[i];
+  }
+
+  @Override
+  public void sub(int[] a, int[] b, int[] r, int n) {
+    for (int i = 0; i < n; i++) r[i] = a[i] - b[i];
+  }
+
+  @Override
+  public void negate(int[] a, int[] r, int from, int to) {
+    for (int i = from; i < to; i++) r[i] = -a[i];
+  }
+
+  @Override
+  public void addScaled(int c, int[] b, int bOff, int[] r, int rOff, int n) {
+    for (int j = 0; j < n; j++) r[rOff + j] += c * b[bOff + j];
+  }
+}
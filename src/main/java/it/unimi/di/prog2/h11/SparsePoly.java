@@ -0,0 +1,743 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h11;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * {@code SparsePoly}s are immutable polynomials with integer coefficients such that the number of
+ * nonzero coefficient is small with respect to the degree.
+ *
+ * <p>A typical {@code Poly} is \( p = c_0 + c_1 x + c_2 x^2 + \cdots + c_n x^n \).
+ *
+ * <p>Differently from the previous implementation, the nonzero terms are not stored as a list of
+ * objects, but as two parallel arrays of degrees and coefficients (so that each term takes 8
+ * bytes); being sorted by degree, the coefficient of a given degree is found by binary search, and
+ * two polynomials are summed by a single merge of their arrays.
+ */
+public class SparsePoly {
+
+  /** The degrees of the nonzero terms, in increasing order. */
+  private final int[] degree;
+
+  /** The coefficients of the nonzero terms, {@code coefficient[i]} is that of {@code degree[i]}. */
+  private final int[] coefficient;
+
+  /** The number of terms (the arrays may be longer, see {@link Builder#build()}). */
+  private final int length;
+
+  /*
+   * RI:
+   *
+   *  - degree != null, coefficient != null and degree.length == coefficient.length
+   *  - 0 <= length <= degree.length
+   *  - degree[0..length) is strictly increasing and degree[0] >= 0 (if present)
+   *  - coefficient[0..length) contains no zeros
+   *
+   * AF:
+   *
+   *  - if length is 0, represents the zero polynomial, else
+   *  - represents the polynomial obtained by summing coefficient[i] * x^degree[i]
+   *    for 0 <= i < length
+   */
+
+  /**
+   * The maximum degree (plus one) of a product computed by accumulating the products of terms in an
+   * array indexed by degree.
+   */
+  private static final int MAX_DENSE_SPAN = 1 << 24;
+
+  /**
+   * The number of terms times points from which {@link #evaluate(long[])} evaluates points in
+   * parallel.
+   */
+  private static final long PARALLEL_EVALUATION_THRESHOLD = 1 << 20;
+
+  /** The (only instance) of the zero polynomial. */
+  public static final SparsePoly ZERO = new SparsePoly(new int[0], new int[0], 0);
+
+  /**
+   * Initializes the polynomial given the arrays of degrees and coefficients.
+   *
+   * <p>This constructor is partial, it's up to the factory methods to ensure that the
+   * representation invariant is preserved; the arrays are not copied.
+   *
+   * @param degree the array of degrees (must satisfy the representation invariant).
+   * @param coefficient the array of coefficients (must satisfy the representation invariant).
+   * @param length the number of terms.
+   */
+  private SparsePoly(int[] degree, int[] coefficient, int length) {
+    assert degree != null && coefficient != null && degree.length == coefficient.length
+        : "The arrays must not be null and must have the same length.";
+    assert 0 <= length && length <= degree.length : "The length must fit the arrays.";
+    this.degree = degree;
+    this.coefficient = coefficient;
+    this.length = length;
+  }
+
+  /**
+   * Returns a polynomial given the arrays of degrees and coefficients of its terms, possibly longer
+   * than needed; the arrays are not copied, hence they must not be referenced by anyone else.
+   *
+   * @param degree the array of degrees, strictly increasing in its first {@code n} elements.
+   * @param coefficient the array of nonzero coefficients, in its first {@code n} elements.
+   * @param n the number of terms.
+   * @return the polynomial.
+   */
+  private static SparsePoly of(int[] degree, int[] coefficient, int n) {
+    return n == 0 ? ZERO : new SparsePoly(degree, coefficient, n);
+  }
+
+  /**
+   * Returns a polynomial given the arrays of degrees and coefficients of its terms, as {@link
+   * #of(int[], int[], int)}, but trimming the arrays if they are longer than needed.
+   *
+   * <p>Used for the results of operations that size their arrays on an upper bound, so that such
+   * slack is not retained by long-lived immutable polynomials.
+   *
+   * @param degree the array of degrees, strictly increasing in its first {@code n} elements.
+   * @param coefficient the array of nonzero coefficients, in its first {@code n} elements.
+   * @param n the number of terms.
+   * @return the polynomial.
+   */
+  private static SparsePoly trimmed(int[] degree, int[] coefficient, int n) {
+    if (n == degree.length) return of(degree, coefficient, n);
+    return of(Arrays.copyOf(degree, n), Arrays.copyOf(coefficient, n), n);
+  }
+
+  /**
+   * Initializes this to be the polynomial \(p = cx^n\).
+   *
+   * @param c the coefficient.
+   * @param n the degree.
+   * @return the polynomial \( p = cx^n \).
+   * @throws IllegalArgumentException if {@code n} &lt; 0.
+   */
+  public static SparsePoly ofCoefficientDegree(int c, int n) throws IllegalArgumentException {
+    if (n < 0) throw new IllegalArgumentException("Can't create a monomial with negative exponent");
+    return c == 0 ? ZERO : new SparsePoly(new int[] {n}, new int[] {c}, 1);
+  }
+
+  /**
+   * Checks whether this polynomial is the zero polynomial.
+   *
+   * @return {@code true} if this polynomial is the zero polynomial, {@code false} otherwise.
+   */
+  public boolean isZero() {
+    return length == 0;
+  }
+
+  /**
+   * Returns the degree of this polynomial.
+   *
+   * <p>The degree is defined as the largest exponent with a non-zero coefficient.
+   *
+   * @return the largest exponent with a non-zero coefficient.
+   * @throws IllegalStateException if this is the zero polynomial.
+   */
+  public int degree() {
+    if (length == 0) throw new IllegalStateException("The zero polynomial has no degree.");
+    return degree[length - 1];
+  }
+
+  /**
+   * Returns the coefficient of the term of given exponent.
+   *
+   * @param d the exponent of the term to consider.
+   * @return the coefficient of the considered term.
+   */
+  public int coeff(int d) {
+    final int i = Arrays.binarySearch(degree, 0, length, d);
+    return i >= 0 ? coefficient[i] : 0;
+  }
+
+  /**
+   * Returns the number of nonzero terms of this polynomial.
+   *
+   * @return the number of nonzero terms.
+   */
+  public int terms() {
+    return length;
+  }
+
+  /**
+   * Merges the terms of this polynomial with those of another one, multiplied by a sign.
+   *
+   * @param q the other polynomial.
+   * @param sign the sign, either 1 or -1.
+   * @return the polynomial \( p + \mathit{sign} \cdot q \), where \( p \) is this polynomial.
+   */
+  private SparsePoly merge(SparsePoly q, int sign) {
+    final int n = length, m = q.length;
+    final int[] rDegree = new int[n + m], rCoefficient = new int[n + m];
+    int i = 0, j = 0, k = 0;
+    while (i < n && j < m) {
+      if (degree[i] < q.degree[j]) {
+        rDegree[k] = degree[i];
+        rCoefficient[k++] = coefficient[i++];
+      } else if (degree[i] > q.degree[j]) {
+        rDegree[k] = q.degree[j];
+        rCoefficient[k++] = sign * q.coefficient[j++];
+      } else {
+        final int c = coefficient[i] + sign * q.coefficient[j];
+        if (c != 0) {
+          rDegree[k] = degree[i];
+          rCoefficient[k++] = c;
+        }
+        i++;
+        j++;
+      }
+    }
+    for (; i < n; i++, k++) {
+      rDegree[k] = degree[i];
+      rCoefficient[k] = coefficient[i];
+    }
+    for (; j < m; j++, k++) {
+      rDegree[k] = q.degree[j];
+      rCoefficient[k] = sign * q.coefficient[j];
+    }
+    return trimmed(rDegree, rCoefficient, k);
+  }
+
+  /**
+   * Performs polynomial addition.
+   *
+   * <p>If \( p \) is this polynomial, returns \( p + q \).
+   *
+   * @param q the polynomial to add to this one.
+   * @return the sum among this and the given polynomial.
+   * @throws NullPointerException if {@code q} is {@code null}.
+   */
+  public SparsePoly add(SparsePoly q) throws NullPointerException {
+    Objects.requireNonNull(q, "The polynomial to add cannot be null.");
+    if (isZero()) return q;
+    if (q.isZero()) return this;
+    return merge(q, 1);
+  }
+
+  /**
+   * Performs polynomial multiplication.
+   *
+   * <p>If \( p \) is this polynomial, returns \( p q \).
+   *
+   * <p>If the product is expected to be dense, that is if its degree is not much larger than the
+   * number of products of terms, such products are accumulated in an array indexed by degree.
+   * Otherwise, the terms of the product are generated in increasing degree order by merging the
+   * rows \( f_i g \), where \( f_i \) is the \( i \)-th term of the factor with less terms and
+   * \( g \) is the other factor, through a heap (keyed by the degree of the next term of each row)
+   * whose size is the number of terms of the shorter factor (following S. C. Johnson); consecutive
+   * terms of the same degree are summed as they come out of the heap.
+   *
+   * @param q the polynomial to multiply by this one.
+   * @return the product among this and the given polynomial.
+   * @throws NullPointerException if {@code q} is {@code null}.
+   */
+  public SparsePoly mul(SparsePoly q) throws NullPointerException {
+    Objects.requireNonNull(q, "The polynomial to multiply cannot be null.");
+    if (isZero() || q.isZero()) return ZERO;
+    final SparsePoly f = length <= q.length ? this : q, g = f == this ? q : this;
+    final long span = (long) f.degree() + g.degree() + 1;
+    if (span <= MAX_DENSE_SPAN && span <= 4L * f.length * g.length)
+      return f.denseMul(g, (int) span);
+    final int n = f.length;
+    final int[] next = new int[n]; // next[i] is the index in g of the next term of row i
+    final int[] heapRow = new int[n], heapKey = new int[n]; // the rows, as a binary min-heap
+    // initially, the rows are sorted by key (that is f.degree[i] + g.degree[0]), hence a heap
+    for (int i = 0; i < n; i++) {
+      heapRow[i] = i;
+      heapKey[i] = f.degree[i] + g.degree[0];
+    }
+    int size = n, k = 0;
+    int[] rDegree = new int[n + g.length], rCoefficient = new int[rDegree.length];
+    while (size > 0) {
+      final int row = heapRow[0], d = heapKey[0];
+      final int c = f.coefficient[row] * g.coefficient[next[row]];
+      if (k > 0 && rDegree[k - 1] == d) {
+        rCoefficient[k - 1] += c;
+      } else {
+        if (k > 0 && rCoefficient[k - 1] == 0) k--;
+        if (k == rDegree.length) {
+          rDegree = Arrays.copyOf(rDegree, 2 * k);
+          rCoefficient = Arrays.copyOf(rCoefficient, 2 * k);
+        }
+        rDegree[k] = d;
+        rCoefficient[k++] = c;
+      }
+      if (++next[row] < g.length) {
+        siftDown(heapRow, heapKey, size, row, f.degree[row] + g.degree[next[row]]);
+      } else if (--size > 0) {
+        siftDown(heapRow, heapKey, size, heapRow[size], heapKey[size]);
+      }
+    }
+    if (rCoefficient[k - 1] == 0) k--;
+    return trimmed(rDegree, rCoefficient, k);
+  }
+
+  /**
+   * Multiplies this polynomial by another one accumulating the products of their terms in an
+   * array indexed by degree.
+   *
+   * @param g the other polynomial, not zero.
+   * @param span the degree of the product, plus one.
+   * @return the product among this and the given polynomial.
+   */
+  private SparsePoly denseMul(SparsePoly g, int span) {
+    final int[] sum = new int[span];
+    for (int i = 0; i < length; i++) {
+      final int d = degree[i], c = coefficient[i];
+      for (int j = 0; j < g.length; j++) sum[d + g.degree[j]] += c * g.coefficient[j];
+    }
+    int k = 0;
+    for (int d = 0; d < span; d++) if (sum[d] != 0) k++;
+    final int[] rDegree = new int[k], rCoefficient = new int[k];
+    k = 0;
+    for (int d = 0; d < span; d++)
+      if (sum[d] != 0) {
+        rDegree[k] = d;
+        rCoefficient[k++] = sum[d];
+      }
+    return of(rDegree, rCoefficient, k);
+  }
+
+  /**
+   * Replaces the root of a (nonempty) heap of rows, restoring the heap property.
+   *
+   * @param heapRow the rows in the heap.
+   * @param heapKey the keys of the rows in the heap.
+   * @param size the size of the heap.
+   * @param row the row replacing the root.
+   * @param key the key of {@code row}.
+   */
+  private static void siftDown(int[] heapRow, int[] heapKey, int size, int row, int key) {
+    int i = 0;
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= size) break;
+      if (child + 1 < size && heapKey[child + 1] < heapKey[child]) child++;
+      if (key <= heapKey[child]) break;
+      heapRow[i] = heapRow[child];
+      heapKey[i] = heapKey[child];
+      i = child;
+    }
+    heapRow[i] = row;
+    heapKey[i] = key;
+  }
+
+  /**
+   * Performs polynomial subtraction.
+   *
+   * <p>If \( p \) is this polynomial, returns \( p - q \).
+   *
+   * @param q the polynomial to subtract from this one.
+   * @return the subtraction among this and the given polynomial.
+   * @throws NullPointerException if {@code q} is {@code null}.
+   */
+  public SparsePoly sub(SparsePoly q) throws NullPointerException {
+    Objects.requireNonNull(q, "The polynomial to subtract cannot be null.");
+    if (q.isZero()) return this;
+    return merge(q, -1);
+  }
+
+  /**
+   * Returns the negate polynomial.
+   *
+   * <p>If \( p \) is this polynomial, returns \( -p \).
+   *
+   * @return this polynomial multiplied by \( -1 \).
+   */
+  public SparsePoly minus() {
+    if (isZero()) return this;
+    final int[] result = new int[degree.length];
+    for (int i = 0; i < length; i++) result[i] = -coefficient[i];
+    return new SparsePoly(degree, result, length);
+  }
+
+  /**
+   * Computes a power by repeated squaring, with {@code long} arithmetic.
+   *
+   * @param x the base.
+   * @param e the exponent, non negative.
+   * @return \( x^e \) (modulo \( 2^{64} \)).
+   */
+  private static long pow(long x, int e) {
+    long result = 1;
+    for (; e > 0; e >>= 1, x *= x) if ((e & 1) != 0) result *= x;
+    return result;
+  }
+
+  /**
+   * Computes a modular power by repeated squaring.
+   *
+   * @param x the base, in \( [0, \mathit{modulus}) \).
+   * @param e the exponent, non negative.
+   * @param modulus the modulus, at most {@code Integer.MAX_VALUE}.
+   * @return \( x^e \bmod \mathit{modulus} \).
+   */
+  private static long pow(long x, int e, long modulus) {
+    long result = 1 % modulus;
+    for (; e > 0; e >>= 1, x = x * x % modulus) if ((e & 1) != 0) result = result * x % modulus;
+    return result;
+  }
+
+  /**
+   * Evaluates this polynomial at a point.
+   *
+   * <p>The terms are processed as in Horner's rule, from the one of largest degree, raising the
+   * partial result to the gap between consecutive degrees by repeated squaring; the evaluation is
+   * performed with {@code long} arithmetic, hence, in case of overflow, the result is correct
+   * modulo \( 2^{64} \).
+   *
+   * @param x the point.
+   * @return the value of this polynomial at {@code x}.
+   */
+  public long evaluate(long x) {
+    if (isZero()) return 0;
+    long result = 0;
+    int previous = degree();
+    for (int i = length - 1; i >= 0; i--) {
+      result = result * pow(x, previous - degree[i]) + coefficient[i];
+      previous = degree[i];
+    }
+    return result * pow(x, previous);
+  }
+
+  /**
+   * Evaluates this polynomial at a point, modulo a given modulus (typically a prime).
+   *
+   * @param x the point.
+   * @param modulus the modulus.
+   * @return the value of this polynomial at {@code x}, modulo {@code modulus} (in \( [0,
+   *     \mathit{modulus}) \)).
+   * @throws IllegalArgumentException if {@code modulus} is not positive, or greater than {@code
+   *     Integer.MAX_VALUE}.
+   */
+  public long evaluate(long x, long modulus) throws IllegalArgumentException {
+    if (modulus <= 0 || modulus > Integer.MAX_VALUE)
+      throw new IllegalArgumentException("The modulus must be positive and fit in an int.");
+    if (isZero()) return 0;
+    final long y = Math.floorMod(x, modulus);
+    long result = 0;
+    int previous = degree();
+    for (int i = length - 1; i >= 0; i--) {
+      final long c = Math.floorMod(coefficient[i], modulus);
+      result = (result * pow(y, previous - degree[i], modulus) + c) % modulus;
+      previous = degree[i];
+    }
+    return result * pow(y, previous, modulus) % modulus;
+  }
+
+  /**
+   * Evaluates this polynomial at many points.
+   *
+   * <p>If the overall work is large enough, points are evaluated in parallel.
+   *
+   * @param xs the points.
+   * @return the values of this polynomial at {@code xs}, as by {@link #evaluate(long)}.
+   * @throws NullPointerException if {@code xs} is {@code null}.
+   */
+  public long[] evaluate(long[] xs) throws NullPointerException {
+    Objects.requireNonNull(xs, "The points must not be null.");
+    final long[] result = new long[xs.length];
+    if ((long) xs.length * length >= PARALLEL_EVALUATION_THRESHOLD)
+      Arrays.parallelSetAll(result, i -> evaluate(xs[i]));
+    else for (int i = 0; i < xs.length; i++) result[i] = evaluate(xs[i]);
+    return result;
+  }
+
+  // Methods inherited from Object
+
+  @Override
+  public String toString() {
+    if (isZero()) return "SparsePoly: 0";
+    if (degree() == 0) return "SparsePoly: " + coefficient[0];
+    StringBuilder sb = new StringBuilder("SparsePoly: ");
+    int i = length - 1;
+    int c = coefficient[i];
+    if (c < -1) sb.append("-" + (-c));
+    else if (c == -1) sb.append("-");
+    else if (c > 1) sb.append(c);
+    sb.append("x" + (degree() > 1 ? "^" + degree() : ""));
+    for (i--; i >= 0 && degree[i] > 0; i--) {
+      c = coefficient[i];
+      if (c < -1) sb.append(" - " + (-c));
+      else if (c == -1) sb.append(" - ");
+      else if (c == 1) sb.append(" + ");
+      else sb.append(" + " + c);
+      sb.append("x" + (degree[i] > 1 ? "^" + degree[i] : ""));
+    }
+    if (i == 0) {
+      c = coefficient[0];
+      if (c > 0) sb.append(" + " + c);
+      else sb.append(" - " + (-c));
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public int hashCode() {
+    int d = 1, c = 1; // as Arrays.hashCode, on the terms in use
+    for (int i = 0; i < length; i++) {
+      d = 31 * d + degree[i];
+      c = 31 * c + coefficient[i];
+    }
+    return 31 * d + c;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) return true;
+    if (!(obj instanceof SparsePoly other)) return false;
+    return Arrays.equals(degree, 0, length, other.degree, 0, other.length)
+        && Arrays.equals(coefficient, 0, length, other.coefficient, 0, other.length);
+  }
+
+  /**
+   * A mutable polynomial, to accumulate the result of a long sequence of operations without
+   * allocating a new {@link SparsePoly} at every step (see EJ 2.2 and 4.17).
+   *
+   * <p>The terms are kept in two parallel arrays whose capacity grows geometrically, so that adding
+   * terms or polynomials (by merging backwards from the end of the arrays) and multiplying by
+   * monomials happen in place. The {@link #build()} method hands the arrays over to the returned
+   * {@link SparsePoly} in constant time, without copying them (the unused capacity remains part of
+   * the representation of the polynomial, unless {@link #trimToSize()} is called before).
+   */
+  public static class Builder {
+
+    /** The degrees of the nonzero terms, in increasing order. */
+    private int[] degree;
+
+    /** The coefficients of the nonzero terms. */
+    private int[] coefficient;
+
+    /** The number of terms. */
+    private int size;
+
+    /*-
+     * RI:
+     *
+     *  - degree != null, coefficient != null, degree.length == coefficient.length
+     *  - 0 <= size <= degree.length
+     *  - degree is strictly increasing and coefficient has no zeros in their first size elements
+     *
+     * AF:
+     *
+     *  AF(degree, coefficient, size) = sum of coefficient[i] x^degree[i], for 0 <= i < size
+     */
+
+    /** Initializes this to be the zero polynomial. */
+    public Builder() {
+      this(0);
+    }
+
+    /**
+     * Initializes this to be the zero polynomial, with room for the given number of terms.
+     *
+     * @param capacity the initial capacity.
+     * @throws IllegalArgumentException if {@code capacity} is negative.
+     */
+    public Builder(int capacity) throws IllegalArgumentException {
+      if (capacity < 0) throw new IllegalArgumentException("The capacity must not be negative.");
+      degree = new int[capacity];
+      coefficient = new int[capacity];
+    }
+
+    /**
+     * Initializes this to be the given polynomial.
+     *
+     * @param poly the polynomial.
+     * @throws NullPointerException if {@code poly} is {@code null}.
+     */
+    public Builder(SparsePoly poly) throws NullPointerException {
+      Objects.requireNonNull(poly, "The polynomial must not be null.");
+      degree = Arrays.copyOf(poly.degree, poly.length);
+      coefficient = Arrays.copyOf(poly.coefficient, poly.length);
+      size = poly.length;
+    }
+
+    /**
+     * Makes sure that the given number of terms can be stored without reallocations.
+     *
+     * @param capacity the required capacity.
+     */
+    public void ensureCapacity(int capacity) {
+      if (capacity > degree.length) {
+        final int length = Math.max(capacity, degree.length + (degree.length >> 1));
+        degree = Arrays.copyOf(degree, length);
+        coefficient = Arrays.copyOf(coefficient, length);
+      }
+    }
+
+    /** Reduces the capacity to the number of terms. */
+    public void trimToSize() {
+      if (size < degree.length) {
+        degree = Arrays.copyOf(degree, size);
+        coefficient = Arrays.copyOf(coefficient, size);
+      }
+    }
+
+    /**
+     * Checks whether this is the zero polynomial.
+     *
+     * @return {@code true} if this is the zero polynomial, {@code false} otherwise.
+     */
+    public boolean isZero() {
+      return size == 0;
+    }
+
+    /**
+     * Adds the term \( cx^n \) to this polynomial.
+     *
+     * <p>Adding a term of degree larger than those of this polynomial takes constant (amortized)
+     * time.
+     *
+     * @param c the coefficient.
+     * @param n the degree.
+     * @return this builder.
+     * @throws IllegalArgumentException if {@code n} &lt; 0.
+     */
+    public Builder addInPlace(int c, int n) throws IllegalArgumentException {
+      if (n < 0) throw new IllegalArgumentException("Can't add a monomial with negative exponent");
+      if (c == 0) return this;
+      final int i =
+          size == 0 || degree[size - 1] < n ? -size - 1 : Arrays.binarySearch(degree, 0, size, n);
+      if (i >= 0) {
+        coefficient[i] += c;
+        if (coefficient[i] == 0) {
+          System.arraycopy(degree, i + 1, degree, i, size - i - 1);
+          System.arraycopy(coefficient, i + 1, coefficient, i, size - i - 1);
+          size--;
+        }
+      } else {
+        final int at = -i - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(degree, at, degree, at + 1, size - at);
+        System.arraycopy(coefficient, at, coefficient, at + 1, size - at);
+        degree[at] = n;
+        coefficient[at] = c;
+        size++;
+      }
+      return this;
+    }
+
+    /**
+     * Adds the given polynomial to this one.
+     *
+     * @param q the polynomial to add.
+     * @return this builder.
+     * @throws NullPointerException if {@code q} is {@code null}.
+     */
+    public Builder addInPlace(SparsePoly q) throws NullPointerException {
+      Objects.requireNonNull(q, "The polynomial must not be null.");
+      final int m = q.length;
+      ensureCapacity(size + m);
+      // merges from the highest degree down, in the free space at the end of the arrays
+      int i = size - 1, j = m - 1, k = size + m - 1;
+      while (j >= 0) {
+        if (i >= 0 && degree[i] > q.degree[j]) {
+          degree[k] = degree[i];
+          coefficient[k--] = coefficient[i--];
+        } else if (i >= 0 && degree[i] == q.degree[j]) {
+          final int c = coefficient[i] + q.coefficient[j--];
+          if (c != 0) {
+            degree[k] = degree[i];
+            coefficient[k--] = c;
+          }
+          i--;
+        } else {
+          degree[k] = q.degree[j];
+          coefficient[k--] = q.coefficient[j--];
+        }
+      }
+      // the terms of degree[0..i] are untouched, the merged ones follow from k + 1
+      final int merged = size + m - 1 - k;
+      System.arraycopy(degree, k + 1, degree, i + 1, merged);
+      System.arraycopy(coefficient, k + 1, coefficient, i + 1, merged);
+      size = i + 1 + merged;
+      return this;
+    }
+
+    /**
+     * Multiplies this polynomial by the monomial \( cx^n \).
+     *
+     * @param c the coefficient.
+     * @param n the degree.
+     * @return this builder.
+     * @throws IllegalArgumentException if {@code n} &lt; 0.
+     */
+    public Builder mulByMonomialInPlace(int c, int n) throws IllegalArgumentException {
+      if (n < 0)
+        throw new IllegalArgumentException("Can't multiply by a monomial with negative exponent");
+      int k = 0;
+      if (c != 0)
+        for (int i = 0; i < size; i++) {
+          final int p = coefficient[i] * c;
+          if (p != 0) { // the product can overflow to zero
+            degree[k] = degree[i] + n;
+            coefficient[k++] = p;
+          }
+        }
+      size = k;
+      return this;
+    }
+
+    /**
+     * Multiplies this polynomial by the given one.
+     *
+     * <p>If the given polynomial is a monomial the product is computed in place, otherwise it is
+     * computed by {@link SparsePoly#mul(SparsePoly)}, whose result becomes the representation of
+     * this builder.
+     *
+     * @param q the polynomial to multiply by.
+     * @return this builder.
+     * @throws NullPointerException if {@code q} is {@code null}.
+     */
+    public Builder mulInPlace(SparsePoly q) throws NullPointerException {
+      Objects.requireNonNull(q, "The polynomial must not be null.");
+      if (q.isZero()) return mulByMonomialInPlace(0, 0);
+      if (q.length == 1) return mulByMonomialInPlace(q.coefficient[0], q.degree[0]);
+      if (size == 0) return this;
+      // this polynomial is used only during the call, the product has fresh (or empty) arrays
+      final SparsePoly product = of(degree, coefficient, size).mul(q);
+      degree = product.degree;
+      coefficient = product.coefficient;
+      size = product.length;
+      return this;
+    }
+
+    /**
+     * Returns the polynomial built so far, and makes this builder the zero polynomial.
+     *
+     * <p>The arrays are handed over to the returned polynomial in constant time, without copying
+     * them, and this builder starts over with no capacity.
+     *
+     * @return the polynomial.
+     */
+    public SparsePoly build() {
+      final SparsePoly result = of(degree, coefficient, size);
+      degree = new int[0];
+      coefficient = new int[0];
+      size = 0;
+      return result;
+    }
+  }
+}
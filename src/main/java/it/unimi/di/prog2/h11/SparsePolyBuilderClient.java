@@ -0,0 +1,93 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h11;
+
+import java.util.Scanner;
+
+/** A class to test {@link SparsePoly.Builder}. */
+public class SparsePolyBuilderClient {
+
+  /** . */
+  private SparsePolyBuilderClient() {}
+
+  /**
+   * Tests the methods of {@link SparsePoly.Builder}.
+   *
+   * <p>Reads a list of commands from the standard input and applies them to a builder, repeating
+   * every operation on an immutable {@link SparsePoly} as a reference; the commands are:
+   *
+   * <ul>
+   *   <li>{@code a c n}: adds the term \( cx^n \),
+   *   <li>{@code m c n}: multiplies by the monomial \( cx^n \),
+   *   <li>{@code q c n}: adds the term \( cx^n \) to the operand (initially zero),
+   *   <li>{@code Q}: resets the operand to zero,
+   *   <li>{@code A}: adds the operand,
+   *   <li>{@code M}: multiplies by the operand,
+   *   <li>{@code t}: trims the capacity of the builder,
+   *   <li>{@code b}: builds the polynomial, emitting it in the standard output, followed by whether
+   *       it is equal (and has the same hash code) to the reference, that is reset to zero.
+   * </ul>
+   *
+   * @param args not used.
+   */
+  public static void main(String[] args) {
+    final SparsePoly.Builder builder = new SparsePoly.Builder();
+    SparsePoly reference = SparsePoly.ZERO, operand = SparsePoly.ZERO;
+    try (Scanner s = new Scanner(System.in)) {
+      while (s.hasNext()) {
+        switch (s.next()) {
+          case "a" -> {
+            final int c = s.nextInt(), n = s.nextInt();
+            builder.addInPlace(c, n);
+            reference = reference.add(SparsePoly.ofCoefficientDegree(c, n));
+          }
+          case "m" -> {
+            final int c = s.nextInt(), n = s.nextInt();
+            builder.mulByMonomialInPlace(c, n);
+            reference = reference.mul(SparsePoly.ofCoefficientDegree(c, n));
+          }
+          case "q" ->
+              operand = operand.add(SparsePoly.ofCoefficientDegree(s.nextInt(), s.nextInt()));
+          case "Q" -> operand = SparsePoly.ZERO;
+          case "A" -> {
+            builder.addInPlace(operand);
+            reference = reference.add(operand);
+          }
+          case "M" -> {
+            builder.mulInPlace(operand);
+            reference = reference.mul(operand);
+          }
+          case "t" -> builder.trimToSize();
+          case "b" -> {
+            final SparsePoly result = builder.build();
+            System.out.println(result);
+            System.out.println(
+                "Equal: "
+                    + (result.equals(reference) && result.hashCode() == reference.hashCode()));
+            reference = SparsePoly.ZERO;
+          }
+          default -> throw new IllegalArgumentException("Unknown command");
+        }
+      }
+    }
+  }
+}
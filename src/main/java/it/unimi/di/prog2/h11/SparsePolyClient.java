@@ -0,0 +1,98 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h11;
+
+import java.util.Scanner;
+
+/** A class to test some methods of {@link SparsePoly}. */
+public class SparsePolyClient {
+
+  /** . */
+  private SparsePolyClient() {}
+
+  /**
+   * Returns the polynomial whose terms are given by the arguments following the first one, as
+   * (coefficient, degree) pairs.
+   *
+   * @param args the arguments.
+   * @return the polynomial.
+   */
+  private static SparsePoly fromArgs(String[] args) {
+    SparsePoly poly = SparsePoly.ZERO;
+    for (int i = 1; i + 1 < args.length; i += 2) {
+      int c = Integer.parseInt(args[i]), d = Integer.parseInt(args[i + 1]);
+      poly = poly.add(SparsePoly.ofCoefficientDegree(c, d));
+    }
+    return poly;
+  }
+
+  /**
+   * Tests some methods of {@link SparsePoly}.
+   *
+   * <p>Starting from term \( t_0 = x - 1 \) reads a list of \( t_i \) of terms from the standard
+   * input, given as a (coefficient, degree) pairs, and computes the polynomials \( p_{i+1} = p_i
+   * \cdot t_i + t_i \) emitting the last computed polynomial in the standard output.
+   *
+   * <p>If the first argument is {@code times} (respectively, {@code minus}), the resulting
+   * polynomial is multiplied by (respectively, subtracted) the polynomial given by the following
+   * arguments, as (coefficient, degree) pairs, before being emitted; if it is {@code coeff}, the
+   * coefficients of the resulting polynomial for the degrees given as the following arguments are
+   * emitted instead, one per line. Similarly, if it is {@code at}, the values of the resulting
+   * polynomial at the points given as the following arguments are emitted instead, one per line;
+   * if it is {@code mod}, the second argument is a modulus and the values are taken modulo it.
+   *
+   * @param args {@code times} or {@code minus} followed by the terms of a polynomial to emit the
+   *     product by, or the difference with, such polynomial, {@code coeff} followed by some degrees
+   *     to emit the corresponding coefficients, {@code at} followed by some points (or {@code mod}
+   *     followed by a modulus and some points) to emit its values, nothing otherwise.
+   */
+  public static void main(String[] args) {
+    SparsePoly result =
+        SparsePoly.ofCoefficientDegree(1, 1).add(SparsePoly.ofCoefficientDegree(-1, 0));
+    try (Scanner s = new Scanner(System.in)) {
+      while (s.hasNextInt()) {
+        SparsePoly term = SparsePoly.ofCoefficientDegree(s.nextInt(), s.nextInt());
+        result = result.mul(term).add(term);
+      }
+    }
+    if (args.length > 0 && args[0].equals("at")) {
+      long[] xs = new long[args.length - 1];
+      for (int i = 0; i < xs.length; i++) xs[i] = Long.parseLong(args[i + 1]);
+      for (long value : result.evaluate(xs)) System.out.println(value);
+      return;
+    }
+    if (args.length > 0 && args[0].equals("mod")) {
+      long modulus = Long.parseLong(args[1]);
+      for (int i = 2; i < args.length; i++)
+        System.out.println(result.evaluate(Long.parseLong(args[i]), modulus));
+      return;
+    }
+    if (args.length > 0 && args[0].equals("coeff")) {
+      for (int i = 1; i < args.length; i++)
+        System.out.println(result.coeff(Integer.parseInt(args[i])));
+      return;
+    }
+    if (args.length > 0 && args[0].equals("times")) result = result.mul(fromArgs(args));
+    if (args.length > 0 && args[0].equals("minus")) result = result.sub(fromArgs(args));
+    System.out.println(result);
+  }
+}
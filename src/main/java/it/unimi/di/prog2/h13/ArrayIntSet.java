@@ -25,7 +25,14 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.StringJoiner;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /**
  * {@code ArrayIntSet}s are mutable, unbounded sets of integers.
@@ -157,7 +164,7 @@ public class ArrayIntSet implements Iterable<Integer> {
   @Override
   public boolean equals(Object obj) {
     if (!(obj instanceof ArrayIntSet other)) return false;
-    if (size != other.size) return false;
+    if (size != other.size()) return false;
     for (int i = 0; i < size; i++) {
       if (!other.isIn(els[i])) return false;
     }
@@ -171,8 +178,60 @@ public class ArrayIntSet implements Iterable<Integer> {
     return hash;
   }
 
+  /**
+   * Returns an iterator over the elements of this set that does not box them.
+   *
+   * @return an iterator whose {@link PrimitiveIterator.OfInt#nextInt()} returns the elements of
+   *     this set, in no particular order.
+   */
+  public PrimitiveIterator.OfInt intIterator() {
+    return new IntGenerator(els, size);
+  }
+
+  /**
+   * Performs the given action on every element of this set.
+   *
+   * @param action the action to perform, must not be {@code null}.
+   * @throws NullPointerException if {@code action} is {@code null}.
+   */
+  public void forEachInt(IntConsumer action) {
+    Objects.requireNonNull(action);
+    for (int i = 0; i < size; i++) action.accept(els[i]);
+  }
+
+  /**
+   * Returns a spliterator over the elements of this set that does not box them.
+   *
+   * <p>The spliterator splits the elements evenly and reports {@link Spliterator#DISTINCT}, {@link
+   * Spliterator#SIZED} and {@link Spliterator#SUBSIZED}; the set must not be modified while it is
+   * in use.
+   *
+   * @return a spliterator over the elements of this set.
+   */
+  public Spliterator.OfInt intSpliterator() {
+    return Spliterators.spliterator(els, 0, size, Spliterator.DISTINCT);
+  }
+
+  /**
+   * Returns a sequential stream of the elements of this set.
+   *
+   * @return a sequential stream backed by {@link #intSpliterator()}.
+   */
+  public IntStream intStream() {
+    return StreamSupport.intStream(intSpliterator(), false);
+  }
+
+  /**
+   * Returns a parallel stream of the elements of this set.
+   *
+   * @return a parallel stream backed by {@link #intSpliterator()}.
+   */
+  public IntStream parallelIntStream() {
+    return StreamSupport.intStream(intSpliterator(), true);
+  }
+
   @Override
   public Iterator<Integer> iterator() {
-    return new IntGenerator(els, size);
+    return intIterator();
   }
 }
@@ -21,12 +21,16 @@ along with this file.  If not, see <https://www.gnu.org/licenses/>.
 
 package it.unimi.di.prog2.h13;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 
-/** Generator (in Liskov parlance) of the ints contained in a {@link List}. */
-public class IntGenerator implements Iterator<Integer> {
+/**
+ * Generator (in Liskov parlance) of the ints contained in a {@link List}.
+ *
+ * <p>Elements can be obtained without boxing through {@link #nextInt()}.
+ */
+public class IntGenerator implements PrimitiveIterator.OfInt {
 
   /** The list elements. */
   private final int[] els;
@@ -55,7 +59,7 @@ public class IntGenerator implements Iterator<Integer> {
   }
 
   @Override
-  public Integer next() {
+  public int nextInt() {
     if (!hasNext()) throw new NoSuchElementException();
     return els[idx++];
   }
@@ -23,6 +23,7 @@ package it.unimi.di.prog2.h16;
 
 import it.unimi.di.prog2.h13.ArrayIntSet;
 import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 
 /**
  * Example of {@code MaxIntSet} taken from section 7.4 of the textbook by Liskov <em>et al.</em>.
@@ -55,7 +56,10 @@ public class MaxIntSet extends ArrayIntSet {
       return; // observe that if x > biggest it was not actually in this, so we don't need to
     // update biggest
     biggest = Integer.MIN_VALUE;
-    for (int z : this) if (z > biggest) biggest = z;
+    for (PrimitiveIterator.OfInt it = intIterator(); it.hasNext(); ) {
+      final int z = it.nextInt();
+      if (z > biggest) biggest = z;
+    }
   }
 
   /**
@@ -0,0 +1,184 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h16;
+
+import it.unimi.di.prog2.h13.ArrayIntSet;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.function.IntConsumer;
+
+/**
+ * A variant of {@link MaxIntSet} that also answers order statistic queries.
+ *
+ * <p>This class does not use the storage of its superclasses: it keeps its own elements in a
+ * sorted array, so that {@link #max()}, {@link #min()} and {@link #kth(int)} take constant time,
+ * while {@link #isIn(int)} takes a binary search instead of a linear scan. Removing the maximum
+ * takes logarithmic time, since no element has to be shifted; inserting or removing any other
+ * element takes linear time, to shift the greater ones. Elements are iterated in increasing order.
+ *
+ * <p><b>Note</b>: this class extends {@link MaxIntSet}, but overrides all of its methods.
+ */
+public class OrderedMaxIntSet extends MaxIntSet {
+
+  /** The initial capacity of the sorted array. */
+  private static final int INITIAL_CAPACITY = 16;
+
+  /** The elements of this set, in increasing order. */
+  private int[] sorted;
+
+  /** The number of elements in this set. */
+  private int size;
+
+  // RI: sorted != null, 0 <= size <= sorted.length, sorted[0..size) is strictly increasing and the
+  //     elements of the superclasses are never used (they are always empty).
+  // AF: coincides with that of IntSet, with S = { sorted[0], ..., sorted[size - 1] }
+
+  /** Construct an empty {@code OrderedMaxIntSet}. */
+  public OrderedMaxIntSet() {
+    super();
+    sorted = new int[INITIAL_CAPACITY];
+    size = 0;
+  }
+
+  @Override
+  public void insert(final int x) {
+    int i = Arrays.binarySearch(sorted, 0, size, x);
+    if (i >= 0) return;
+    i = -i - 1;
+    if (size == sorted.length) sorted = Arrays.copyOf(sorted, sorted.length * 2);
+    System.arraycopy(sorted, i, sorted, i + 1, size - i);
+    sorted[i] = x;
+    size++;
+  }
+
+  @Override
+  public void remove(final int x) {
+    final int i = Arrays.binarySearch(sorted, 0, size, x);
+    if (i < 0) return;
+    System.arraycopy(sorted, i + 1, sorted, i, size - i - 1); // nothing to shift if x is the max
+    size--;
+  }
+
+  @Override
+  public boolean isIn(final int x) {
+    return Arrays.binarySearch(sorted, 0, size, x) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public int choose() throws NoSuchElementException {
+    if (size == 0) throw new NoSuchElementException("Can't choose from an empty set");
+    return sorted[0];
+  }
+
+  @Override
+  public int max() throws NoSuchElementException {
+    if (size == 0) throw new NoSuchElementException("An empty set does not have a maximum");
+    return sorted[size - 1];
+  }
+
+  /**
+   * Returns the minimum value in the set.
+   *
+   * @return the minimum value in the set.
+   * @throws NoSuchElementException if the set is empty.
+   */
+  public int min() throws NoSuchElementException {
+    if (size == 0) throw new NoSuchElementException("An empty set does not have a minimum");
+    return sorted[0];
+  }
+
+  /**
+   * Returns the element of the given rank, that is the {@code k}-th smallest one (counting from 0).
+   *
+   * @param k the rank.
+   * @return the element \( x \in S \) such that \( |\{ y \in S : y < x \}| = k \).
+   * @throws IndexOutOfBoundsException if {@code k < 0} or {@code k >= size()}.
+   */
+  public int kth(int k) throws IndexOutOfBoundsException {
+    Objects.checkIndex(k, size);
+    return sorted[k];
+  }
+
+  @Override
+  public void forEachInt(IntConsumer action) {
+    Objects.requireNonNull(action);
+    for (int i = 0; i < size; i++) action.accept(sorted[i]);
+  }
+
+  @Override
+  public Spliterator.OfInt intSpliterator() {
+    return Spliterators.spliterator(
+        sorted, 0, size, Spliterator.DISTINCT | Spliterator.ORDERED | Spliterator.SORTED);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt intIterator() {
+    return new PrimitiveIterator.OfInt() {
+
+      /** The index of the next element to return. */
+      private int idx = 0;
+
+      @Override
+      public boolean hasNext() {
+        return idx < size;
+      }
+
+      @Override
+      public int nextInt() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return sorted[idx++];
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    final StringJoiner sj = new StringJoiner(", ", "{", "}");
+    for (int i = 0; i < size; i++) sj.add(Integer.toString(sorted[i]));
+    return sj + (size > 0 ? ", min = " + min() + ", max = " + max() : "");
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof ArrayIntSet other)) return false;
+    if (size != other.size()) return false;
+    for (int i = 0; i < size; i++) if (!other.isIn(sorted[i])) return false;
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 0;
+    for (int i = 0; i < size; i++) hash += Integer.hashCode(sorted[i]);
+    return hash;
+  }
+}
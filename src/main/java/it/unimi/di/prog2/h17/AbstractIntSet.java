@@ -21,33 +21,76 @@ along with this file.  If not, see <https://www.gnu.org/licenses/>.
 
 package it.unimi.di.prog2.h17;
 
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.StringJoiner;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 /**
  * An {@code AbstractIntSet} is a mutable, unbounded set of integers.
  *
  * <p>A typical {@code AbstractIntSet} is \( S = \{x_1, \ldots, x_n \} \).
+ *
+ * <p>Besides the {@link Iterable} interface, elements can be enumerated without boxing through
+ * {@link #intIterator()} and {@link #forEachInt(IntConsumer)}; all the methods implemented in this
+ * class use such primitive path. Elements can also be processed, possibly in parallel, by the
+ * streams returned by {@link #intStream()} and {@link #parallelIntStream()}.
+ *
+ * <p>Implementations keep up to date, besides the size, an order-independent hash of the elements
+ * (the sum of their {@link #mix(int) mixed} values), so that {@link #hashCode()} takes constant
+ * time and {@link #equals(Object)} can tell apart most different sets without looking at their
+ * elements. This is part of the representation invariant: every method changing the elements must
+ * update {@link #size} and {@link #hash}, unless the implementation overrides {@link #size()} and
+ * {@link #hashCode()} respectively.
  */
 public abstract class AbstractIntSet implements Iterable<Integer> {
 
   /** The elements of the set. */
   protected int size;
 
+  /** The sum of {@link #mix(int)} over the elements of the set. */
+  protected int hash;
+
   /*-
-   * AF(size) -> a set with size elements.
-   * RI: size >= 0
+   * AF(size, hash) -> a set with size elements, whose mixed values sum to hash.
+   * RI: size >= 0, size == |S| unless size() is overridden, and hash == sum of mix(x) for x in S
+   *     unless hashCode() is overridden
    */
 
   /** Creates an empty set. */
   protected AbstractIntSet() {
     size = 0;
+    hash = 0;
+  }
+
+  /**
+   * Returns a well mixed hash of an element, whose sum over the elements of a set is its hash
+   * code; implementations must add it to {@link #hash} when inserting an element, and subtract it
+   * when removing it.
+   *
+   * @param x the element.
+   * @return the hash of {@code x} (the finalization step of MurmurHash3, that is a bijection).
+   */
+  protected static int mix(int x) {
+    x ^= x >>> 16;
+    x *= 0x85EBCA6B;
+    x ^= x >>> 13;
+    x *= 0xC2B2AE35;
+    return x ^ (x >>> 16);
   }
 
   /**
    * Adds the given element to this set.
    *
-   * <p>This method modifies the object, that is: \( S' = S \cup \{ x \} \).
+   * <p>This method modifies the object, that is: \( S' = S \cup \{ x \} \). If {@code x} was not
+   * in the set, implementations must increment {@link #size} and add {@link #mix(int) mix(x)} to
+   * {@link #hash} (see the representation invariant).
    *
    * @param x the element to be added.
    */
@@ -56,7 +99,9 @@ public abstract class AbstractIntSet implements Iterable<Integer> {
   /**
    * Removes the given element from this set.
    *
-   * <p>This method modifies the object, that is: \( S' = S \setminus \{ x \} \).
+   * <p>This method modifies the object, that is: \( S' = S \setminus \{ x \} \). If {@code x}
+   * was in the set, implementations must decrement {@link #size} and subtract {@link #mix(int)
+   * mix(x)} from {@link #hash} (see the representation invariant).
    *
    * @param x the element to be removed.
    */
@@ -71,7 +116,8 @@ public abstract class AbstractIntSet implements Iterable<Integer> {
    * @return whether the given element belongs to this set, or not.
    */
   public boolean isIn(int x) {
-    for (int e : this) if (e == x) return true;
+    for (PrimitiveIterator.OfInt it = intIterator(); it.hasNext(); )
+      if (it.nextInt() == x) return true;
     return false;
   }
 
@@ -94,29 +140,169 @@ public abstract class AbstractIntSet implements Iterable<Integer> {
    */
   public int choose() throws NoSuchElementException {
     if (size == 0) throw new NoSuchElementException("Can't choose from an empty set");
-    return iterator().next();
+    return intIterator().nextInt();
+  }
+
+  /**
+   * Returns an iterator over the elements of this set that does not box them.
+   *
+   * @return an iterator whose {@link PrimitiveIterator.OfInt#nextInt()} returns the elements of
+   *     this set, in no particular order.
+   */
+  public abstract PrimitiveIterator.OfInt intIterator();
+
+  /**
+   * Performs the given action on every element of this set.
+   *
+   * @param action the action to perform, must not be {@code null}.
+   * @throws NullPointerException if {@code action} is {@code null}.
+   */
+  public void forEachInt(IntConsumer action) {
+    Objects.requireNonNull(action);
+    for (PrimitiveIterator.OfInt it = intIterator(); it.hasNext(); ) action.accept(it.nextInt());
+  }
+
+  /**
+   * Returns a spliterator over the elements of this set that does not box them.
+   *
+   * <p>This implementation wraps {@link #intIterator()}, reporting {@link Spliterator#DISTINCT},
+   * {@link Spliterator#SIZED} and {@link Spliterator#SUBSIZED}; it can be split only by copying
+   * batches of elements into arrays, hence implementations should override it to split their
+   * representation evenly.
+   *
+   * <p>The set must not be modified while the spliterator is in use.
+   *
+   * @return a spliterator over the elements of this set.
+   */
+  public Spliterator.OfInt intSpliterator() {
+    return Spliterators.spliterator(intIterator(), size(), Spliterator.DISTINCT);
+  }
+
+  /**
+   * Returns a sequential stream of the elements of this set.
+   *
+   * <p>The set must not be modified while the stream is in use.
+   *
+   * @return a sequential stream backed by {@link #intSpliterator()}.
+   */
+  public IntStream intStream() {
+    return StreamSupport.intStream(intSpliterator(), false);
+  }
+
+  /**
+   * Returns a parallel stream of the elements of this set.
+   *
+   * <p>The set must not be modified while the stream is in use.
+   *
+   * @return a parallel stream backed by {@link #intSpliterator()}.
+   */
+  public IntStream parallelIntStream() {
+    return StreamSupport.intStream(intSpliterator(), true);
+  }
+
+  /**
+   * Tells whether {@link #isIn(int)} takes (expected) constant time.
+   *
+   * <p>This implementation returns {@code false}.
+   *
+   * @return {@code true} if membership can be tested in constant time.
+   */
+  protected boolean hasConstantTimeLookup() {
+    return false;
+  }
+
+  /**
+   * Tells whether {@link #intIterator()} returns the elements in increasing order.
+   *
+   * <p>This implementation returns {@code false}.
+   *
+   * @return {@code true} if the elements are enumerated in increasing order.
+   */
+  protected boolean iteratesInOrder() {
+    return false;
+  }
+
+  /**
+   * Returns the elements of this set in increasing order.
+   *
+   * @return a new array containing the elements of this set, sorted.
+   */
+  private int[] toSortedArray() {
+    final int[] result = new int[size()];
+    final PrimitiveIterator.OfInt it = intIterator();
+    for (int i = 0; i < result.length; i++) result[i] = it.nextInt();
+    Arrays.sort(result);
+    return result;
   }
 
+  /**
+   * Returns an immutable copy of this set, optimized for lookups.
+   *
+   * <p>The copy takes time \( O(n \log n) \) in expectation, and is not affected by the subsequent
+   * modifications of this set.
+   *
+   * @return a {@link FrozenIntSet} with the same elements of this set.
+   */
+  public FrozenIntSet freeze() {
+    return new FrozenIntSet(this);
+  }
+
+  @Override
+  public Iterator<Integer> iterator() {
+    return intIterator();
+  }
+
+  /**
+   * Compares this set with another object for equality.
+   *
+   * <p>Sets of different size or hash are told apart in constant time. Otherwise the elements are
+   * compared in linear time if one of the sets {@link #hasConstantTimeLookup() has constant time
+   * lookup} or both {@link #iteratesInOrder() iterate in order}; in all the other cases they are
+   * sorted and compared, in time \( O(n \log n) \).
+   *
+   * @param obj the object to compare with.
+   * @return {@code true} iff {@code obj} is an {@code AbstractIntSet} with the same elements.
+   */
   @Override
   public boolean equals(Object obj) {
     if (this == obj) return true;
     if (!(obj instanceof AbstractIntSet other)) return false;
-    if (size != other.size) return false;
-    for (int e : this) if (!other.isIn(e)) return false;
-    return true;
+    if (size() != other.size() || hashCode() != other.hashCode()) return false;
+    if (hasConstantTimeLookup() || other.hasConstantTimeLookup()) {
+      final AbstractIntSet probed = other.hasConstantTimeLookup() ? other : this;
+      final AbstractIntSet scanned = probed == this ? other : this;
+      for (PrimitiveIterator.OfInt it = scanned.intIterator(); it.hasNext(); )
+        if (!probed.isIn(it.nextInt())) return false;
+      return true;
+    }
+    if (iteratesInOrder() && other.iteratesInOrder()) {
+      for (PrimitiveIterator.OfInt it = intIterator(), jt = other.intIterator(); it.hasNext(); )
+        if (it.nextInt() != jt.nextInt()) return false;
+      return true;
+    }
+    return Arrays.equals(toSortedArray(), other.toSortedArray());
   }
 
+  /**
+   * Returns the hash code of this set, that is the sum of {@link #mix(int)} over its elements.
+   *
+   * <p>This implementation returns {@link #hash}, relying on the subclasses to keep it up to date;
+   * subclasses that do not must override this method.
+   *
+   * @return the hash code of this set.
+   */
   @Override
   public int hashCode() {
-    int result = 0;
-    for (int e : this) result += e; // This is a very bad hash function!
-    return result;
+    return hash;
   }
 
   @Override
   public String toString() {
-    StringJoiner sj = new StringJoiner(", ", "{", "}");
-    for (Integer e : this) sj.add(e.toString());
-    return sj.toString();
+    StringBuilder sb = new StringBuilder("{");
+    for (PrimitiveIterator.OfInt it = intIterator(); it.hasNext(); ) {
+      sb.append(it.nextInt());
+      if (it.hasNext()) sb.append(", ");
+    }
+    return sb.append('}').toString();
   }
 }
@@ -22,9 +22,13 @@ along with this file.  If not, see <https://www.gnu.org/licenses/>.
 package it.unimi.di.prog2.h17;
 
 import java.util.Arrays;
-import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
 
 /**
  * {@code ArrayIntSet}s are mutable, unbounded sets of integers.
@@ -94,6 +98,7 @@ public class ArrayIntSet extends AbstractIntSet {
     if (indexOf(x) != -1) return;
     if (size == els.length) els = Arrays.copyOf(els, els.length * 2);
     els[size++] = x;
+    hash += mix(x);
   }
 
   /**
@@ -107,6 +112,7 @@ public class ArrayIntSet extends AbstractIntSet {
     int i = indexOf(x);
     if (i == -1) return;
     els[i] = els[--size];
+    hash -= mix(x);
   }
 
   /**
@@ -121,8 +127,19 @@ public class ArrayIntSet extends AbstractIntSet {
   }
 
   @Override
-  public Iterator<Integer> iterator() {
-    return new Iterator<Integer>() {
+  public void forEachInt(IntConsumer action) {
+    Objects.requireNonNull(action);
+    for (int i = 0; i < size; i++) action.accept(els[i]);
+  }
+
+  @Override
+  public Spliterator.OfInt intSpliterator() {
+    return Spliterators.spliterator(els, 0, size, Spliterator.DISTINCT);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt intIterator() {
+    return new PrimitiveIterator.OfInt() {
 
       /** The index of the next element to return. */
       private int idx = 0;
@@ -138,7 +155,7 @@ public class ArrayIntSet extends AbstractIntSet {
       }
 
       @Override
-      public Integer next() {
+      public int nextInt() {
         if (!hasNext()) throw new NoSuchElementException();
         return els[idx++];
       }
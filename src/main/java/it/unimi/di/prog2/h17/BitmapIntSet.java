@@ -0,0 +1,1476 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h17;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+/**
+ * {@code BitmapIntSet}s are mutable, unbounded sets of integers stored as compressed bitmaps.
+ *
+ * <p>Following the <em>Roaring</em> layout, elements are partitioned according to their 16 most
+ * significant bits; the 16 least significant bits of the elements of a partition are stored in a
+ * <em>container</em> that is a sorted array (for sparse partitions), a bitmap of \( 2^{16} \) bits
+ * (for dense ones), or a sorted list of runs (only after {@link #runOptimize()}). Unions,
+ * intersections and differences are computed one container at a time, on 64-bit words whenever a
+ * bitmap is involved. Iteration returns the elements in increasing order.
+ *
+ * <p>A typical BitmapIntSet is \( S = \{x_1, \ldots, x_n \} \).
+ */
+public class BitmapIntSet extends AbstractIntSet {
+
+  // Fields
+
+  /** The initial capacity of the internal arrays. */
+  private static final int INITIAL_CAPACITY = 4;
+
+  /** The maximum cardinality of an array container. */
+  private static final int ARRAY_MAX = 4096;
+
+  /** The number of 64-bit words of a bitmap container. */
+  private static final int WORDS = 1 << 10;
+
+  /** The characteristics of the spliterators over the elements of a set, or of a container. */
+  private static final int CHARACTERISTICS =
+      Spliterator.DISTINCT
+          | Spliterator.ORDERED
+          | Spliterator.SORTED
+          | Spliterator.SIZED
+          | Spliterator.SUBSIZED;
+
+  /** The sorted 16 most significant bits (as a signed value) of the partitions. */
+  private int[] keys;
+
+  /** The containers of the partitions, parallel to {@link #keys}. */
+  private Container[] containers;
+
+  /** The number of partitions. */
+  private int n;
+
+  /** Whether {@link #hash} must be recomputed, since the set was built by the set algebra. */
+  private boolean staleHash;
+
+  /*
+   * RI:
+   *
+   * - keys != null, containers != null, keys.length == containers.length >= n >= 0
+   * - Short.MIN_VALUE <= keys[i] <= Short.MAX_VALUE and keys[i] < keys[i + 1] for 0 <= i < n - 1
+   * - containers[i] != null and containers[i].cardinality() > 0 for 0 <= i < n
+   * - array containers have at most ARRAY_MAX values, bitmap containers more than ARRAY_MAX
+   * - no array or bitmap container is shared with another set (run containers are immutable)
+   * - size == sum of containers[i].cardinality() for 0 <= i < n
+   * - staleHash or hash == sum of mix(x) for x in S
+   *
+   * AF:
+   *
+   *  - represents the set S = { (keys[i] << 16) | y : 0 <= i < n, y in containers[i] }
+   *
+   */
+
+  // Constructors
+
+  /**
+   * Initializes this set to be empty.
+   *
+   * <p>Builds the set \( S = \varnothing \).
+   */
+  public BitmapIntSet() {
+    super();
+    keys = new int[INITIAL_CAPACITY];
+    containers = new Container[INITIAL_CAPACITY];
+    n = 0;
+    staleHash = false;
+  }
+
+  // Methods
+
+  /**
+   * Returns the key of the partition of the given element.
+   *
+   * @param x the element.
+   * @return the 16 most significant bits of {@code x}, as a signed value.
+   */
+  private static int high(int x) {
+    return x >> 16;
+  }
+
+  /**
+   * Returns the part of the given element stored in a container.
+   *
+   * @param x the element.
+   * @return the 16 least significant bits of {@code x}.
+   */
+  private static char low(int x) {
+    return (char) x;
+  }
+
+  /**
+   * Looks for a given key among the partitions.
+   *
+   * @param key the key to look for.
+   * @return the index of the partition with the given key, or {@code -(insertion point) - 1}.
+   */
+  private int indexOfKey(int key) {
+    return Arrays.binarySearch(keys, 0, n, key);
+  }
+
+  /**
+   * Adds a partition in the given position, shifting the following ones.
+   *
+   * @param i the position, must be such that the keys remain sorted.
+   * @param key the key of the partition.
+   * @param c the container of the partition.
+   */
+  private void insertPartition(int i, int key, Container c) {
+    if (n == keys.length) {
+      keys = Arrays.copyOf(keys, n * 2);
+      containers = Arrays.copyOf(containers, n * 2);
+    }
+    System.arraycopy(keys, i, keys, i + 1, n - i);
+    System.arraycopy(containers, i, containers, i + 1, n - i);
+    keys[i] = key;
+    containers[i] = c;
+    n++;
+  }
+
+  /**
+   * Appends a partition, if not empty, updating the size of this set.
+   *
+   * <p>Used to build the results of the set algebra methods: to keep them working on whole words,
+   * the hash of the elements is not updated here, but marked as stale and recomputed by {@link
+   * #hashCode()} only if needed.
+   *
+   * @param key the key of the partition, must be greater than every key in this set.
+   * @param c the container of the partition, or {@code null} if it is empty.
+   */
+  private void appendPartition(int key, Container c) {
+    if (c == null || c.cardinality() == 0) return;
+    insertPartition(n, key, c);
+    size += c.cardinality();
+    staleHash = true;
+  }
+
+  /**
+   * Adds the given element to this set.
+   *
+   * <p>This method modifies the object, that is: \( S' = S \cup \{ x \} \).
+   *
+   * @param x the element to be added.
+   */
+  @Override
+  public void insert(int x) {
+    final int i = indexOfKey(high(x));
+    if (i < 0) {
+      ArrayContainer c = new ArrayContainer(INITIAL_CAPACITY);
+      c.add(low(x));
+      insertPartition(-i - 1, high(x), c);
+      size++;
+      hash += mix(x);
+      return;
+    }
+    final int before = containers[i].cardinality();
+    containers[i] = containers[i].add(low(x));
+    if (containers[i].cardinality() == before) return;
+    size++;
+    hash += mix(x);
+  }
+
+  /**
+   * Removes the given element from this set.
+   *
+   * <p>This method modifies the object, that is: \( S' = S \setminus \{ x \} \).
+   *
+   * @param x the element to be removed.
+   */
+  @Override
+  public void remove(int x) {
+    final int i = indexOfKey(high(x));
+    if (i < 0) return;
+    final int before = containers[i].cardinality();
+    containers[i] = containers[i].remove(low(x));
+    if (containers[i].cardinality() == before) return;
+    size--;
+    hash -= mix(x);
+    if (containers[i].cardinality() == 0) {
+      System.arraycopy(keys, i + 1, keys, i, n - i - 1);
+      System.arraycopy(containers, i + 1, containers, i, n - i - 1);
+      containers[--n] = null;
+    }
+  }
+
+  /**
+   * Tells if the given element is in this set.
+   *
+   * <p>Answers the question \( x\in S \).
+   *
+   * @param x the element to look for.
+   * @return whether the given element belongs to this set, or not.
+   */
+  @Override
+  public boolean isIn(int x) {
+    final int i = indexOfKey(high(x));
+    return i >= 0 && containers[i].contains(low(x));
+  }
+
+  /**
+   * Returns an element from this set.
+   *
+   * @return the minimum element of this set.
+   * @throws NoSuchElementException if this set is empty.
+   */
+  @Override
+  public int choose() throws NoSuchElementException {
+    if (size == 0) throw new NoSuchElementException("Can't choose from an empty set");
+    return keys[0] << 16 | containers[0].first();
+  }
+
+  /**
+   * Converts to runs the containers whose elements are stored more compactly that way.
+   *
+   * <p>This method does not change the abstract state, but subsequent insertions and removals
+   * convert the touched containers back to arrays or bitmaps.
+   */
+  public void runOptimize() {
+    for (int i = 0; i < n; i++) {
+      final Container c = containers[i];
+      if (c instanceof RunContainer) continue;
+      final int runs = c.numberOfRuns();
+      if (RunContainer.sizeInBytes(runs) < c.sizeInBytes()) containers[i] = c.toRuns(runs);
+    }
+  }
+
+  /**
+   * Returns the union of this set and the given one.
+   *
+   * <p>Computes \( S \cup T \) leaving both operands unchanged.
+   *
+   * @param other the other set, must not be {@code null}.
+   * @return a new set containing the elements belonging to this or to the other set.
+   * @throws NullPointerException if {@code other} is {@code null}.
+   */
+  public BitmapIntSet union(BitmapIntSet other) {
+    Objects.requireNonNull(other);
+    final BitmapIntSet result = new BitmapIntSet();
+    int i = 0, j = 0;
+    while (i < n && j < other.n) {
+      if (keys[i] < other.keys[j]) result.appendPartition(keys[i], containers[i++].copy());
+      else if (keys[i] > other.keys[j])
+        result.appendPartition(other.keys[j], other.containers[j++].copy());
+      else result.appendPartition(keys[i], or(containers[i++], other.containers[j++]));
+    }
+    for (; i < n; i++) result.appendPartition(keys[i], containers[i].copy());
+    for (; j < other.n; j++) result.appendPartition(other.keys[j], other.containers[j].copy());
+    return result;
+  }
+
+  /**
+   * Returns the intersection of this set and the given one.
+   *
+   * <p>Computes \( S \cap T \) leaving both operands unchanged.
+   *
+   * @param other the other set, must not be {@code null}.
+   * @return a new set containing the elements belonging to both this and the other set.
+   * @throws NullPointerException if {@code other} is {@code null}.
+   */
+  public BitmapIntSet intersect(BitmapIntSet other) {
+    Objects.requireNonNull(other);
+    final BitmapIntSet result = new BitmapIntSet();
+    int i = 0, j = 0;
+    while (i < n && j < other.n) {
+      if (keys[i] < other.keys[j]) i++;
+      else if (keys[i] > other.keys[j]) j++;
+      else result.appendPartition(keys[i], and(containers[i++], other.containers[j++]));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the difference between this set and the given one.
+   *
+   * <p>Computes \( S \setminus T \) leaving both operands unchanged.
+   *
+   * @param other the other set, must not be {@code null}.
+   * @return a new set containing the elements belonging to this set but not to the other one.
+   * @throws NullPointerException if {@code other} is {@code null}.
+   */
+  public BitmapIntSet andNot(BitmapIntSet other) {
+    Objects.requireNonNull(other);
+    final BitmapIntSet result = new BitmapIntSet();
+    int i = 0, j = 0;
+    while (i < n && j < other.n) {
+      if (keys[i] < other.keys[j]) result.appendPartition(keys[i], containers[i++].copy());
+      else if (keys[i] > other.keys[j]) j++;
+      else result.appendPartition(keys[i], andNot(containers[i++], other.containers[j++]));
+    }
+    for (; i < n; i++) result.appendPartition(keys[i], containers[i].copy());
+    return result;
+  }
+
+  /**
+   * Returns the cardinality of the intersection of this set and the given one.
+   *
+   * <p>Responds with \( |S \cap T| \) without building the intersection when both partitions are
+   * bitmaps.
+   *
+   * @param other the other set, must not be {@code null}.
+   * @return the number of elements belonging to both this and the other set.
+   * @throws NullPointerException if {@code other} is {@code null}.
+   */
+  public int intersectionCardinality(BitmapIntSet other) {
+    Objects.requireNonNull(other);
+    int result = 0;
+    int i = 0, j = 0;
+    while (i < n && j < other.n) {
+      if (keys[i] < other.keys[j]) i++;
+      else if (keys[i] > other.keys[j]) j++;
+      else {
+        final Container a = containers[i++], b = other.containers[j++];
+        if (a instanceof BitmapContainer x && b instanceof BitmapContainer y) {
+          for (int k = 0; k < WORDS; k++) result += Long.bitCount(x.words[k] & y.words[k]);
+        } else {
+          final Container c = and(a, b);
+          if (c != null) result += c.cardinality();
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the hash code of this set, that is the sum of {@link #mix(int)} over its elements.
+   *
+   * <p>Takes constant time, but for the first call on a set built by {@link #union(BitmapIntSet)},
+   * {@link #intersect(BitmapIntSet)} or {@link #andNot(BitmapIntSet)}, that takes linear time.
+   *
+   * @return the hash code of this set.
+   */
+  @Override
+  public int hashCode() {
+    if (staleHash) {
+      int h = 0;
+      for (int i = 0; i < n; i++) {
+        final int hi = keys[i] << 16;
+        for (PrimitiveIterator.OfInt it = containers[i].lows(); it.hasNext(); )
+          h += mix(hi | it.nextInt());
+      }
+      hash = h;
+      staleHash = false;
+    }
+    return hash;
+  }
+
+  @Override
+  protected boolean hasConstantTimeLookup() {
+    return true;
+  }
+
+  @Override
+  protected boolean iteratesInOrder() {
+    return true;
+  }
+
+  @Override
+  public void forEachInt(IntConsumer action) {
+    Objects.requireNonNull(action);
+    for (int i = 0; i < n; i++) {
+      final int hi = keys[i] << 16;
+      for (PrimitiveIterator.OfInt it = containers[i].lows(); it.hasNext(); )
+        action.accept(hi | it.nextInt());
+    }
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt intIterator() {
+    return new PrimitiveIterator.OfInt() {
+
+      /** The index of the partition being iterated. */
+      private int idx = 0;
+
+      /** The iterator over the container of the partition being iterated. */
+      private PrimitiveIterator.OfInt lows = n > 0 ? containers[0].lows() : null;
+
+      /*
+       * RI: 0 <= idx <= n, lows == null iff idx == n
+       * AF: the next element to return is (keys[idx] << 16) | the next element of lows, or the
+       *     first element of the following partition if lows is exhausted, or none if idx == n
+       */
+
+      @Override
+      public boolean hasNext() {
+        while (lows != null && !lows.hasNext()) lows = ++idx < n ? containers[idx].lows() : null;
+        return lows != null;
+      }
+
+      @Override
+      public int nextInt() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return keys[idx] << 16 | lows.nextInt();
+      }
+    };
+  }
+
+  /**
+   * Returns a spliterator over the elements of this set that does not box them.
+   *
+   * <p>The spliterator splits the partitions in halves and, when a single partition is left, its
+   * container: arrays by index range, bitmaps by word range and runs between runs. Since the
+   * cardinality of every container is known, the size of every split is exact.
+   *
+   * @return a spliterator over the elements of this set, in increasing order.
+   */
+  @Override
+  public Spliterator.OfInt intSpliterator() {
+    return new PartitionSpliterator(0, n, size);
+  }
+
+  /** A spliterator over the elements in a range of partitions. */
+  private final class PartitionSpliterator implements Spliterator.OfInt {
+
+    /** The index of the first partition in the range that has not been started yet. */
+    private int idx;
+
+    /** The index following the last partition in the range. */
+    private final int end;
+
+    /** The spliterator over the container of the partition {@code idx - 1}, or {@code null}. */
+    private Spliterator.OfInt current;
+
+    /** The number of elements still to return. */
+    private long remaining;
+
+    /*
+     * RI: 0 <= idx <= end <= n, current == null or idx > 0, remaining >= 0
+     * AF: the elements still to return are those of current (if not null), followed by those of
+     *     the partitions from idx (included) to end (excluded)
+     */
+
+    /**
+     * Creates a spliterator over the given range of partitions.
+     *
+     * @param from the index of the first partition.
+     * @param end the index following the last partition.
+     * @param size the number of elements in the partitions of the range.
+     */
+    PartitionSpliterator(int from, int end, long size) {
+      this.idx = from;
+      this.end = end;
+      this.remaining = size;
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+      Objects.requireNonNull(action);
+      for (; ; ) {
+        if (current == null) {
+          if (idx == end) return false;
+          current = containers[idx].spliterator(keys[idx++] << 16);
+        }
+        if (current.tryAdvance(action)) {
+          remaining--;
+          return true;
+        }
+        current = null;
+      }
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+      Objects.requireNonNull(action);
+      if (current != null) {
+        current.forEachRemaining(action);
+        current = null;
+      }
+      for (; idx < end; idx++)
+        containers[idx].spliterator(keys[idx] << 16).forEachRemaining(action);
+      remaining = 0;
+    }
+
+    @Override
+    public Spliterator.OfInt trySplit() {
+      final Spliterator.OfInt prefix;
+      if (current != null) {
+        // the rest of the current partition precedes the following ones, or it is all that's left
+        if (idx < end) {
+          prefix = current;
+          current = null;
+        } else prefix = current.trySplit();
+        if (prefix != null) remaining -= prefix.estimateSize();
+        return prefix;
+      }
+      if (end - idx == 1) {
+        current = containers[idx].spliterator(keys[idx++] << 16);
+        return trySplit();
+      }
+      final int mid = (idx + end) >>> 1;
+      if (mid == idx) return null;
+      long prefixSize = 0;
+      for (int i = idx; i < mid; i++) prefixSize += containers[i].cardinality();
+      prefix = new PartitionSpliterator(idx, mid, prefixSize);
+      idx = mid;
+      remaining -= prefixSize;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return remaining;
+    }
+
+    @Override
+    public int characteristics() {
+      return CHARACTERISTICS;
+    }
+
+    @Override
+    public Comparator<? super Integer> getComparator() {
+      return null; // natural order
+    }
+  }
+
+  /** A spliterator over (a range of) the values of a container, combined with a partition key. */
+  private abstract static class ContainerSpliterator implements Spliterator.OfInt {
+
+    /** The key of the partition, shifted in the 16 most significant bits. */
+    final int hi;
+
+    /** The number of values still to return. */
+    long remaining;
+
+    /**
+     * Creates a spliterator returning the given number of values.
+     *
+     * @param hi the key of the partition, already shifted.
+     * @param remaining the number of values in the range.
+     */
+    ContainerSpliterator(int hi, long remaining) {
+      this.hi = hi;
+      this.remaining = remaining;
+    }
+
+    @Override
+    public long estimateSize() {
+      return remaining;
+    }
+
+    @Override
+    public int characteristics() {
+      return CHARACTERISTICS;
+    }
+
+    @Override
+    public Comparator<? super Integer> getComparator() {
+      return null; // natural order
+    }
+  }
+
+  // Container algebra
+
+  /**
+   * Turns a run container into a bitmap container, leaving the others unchanged.
+   *
+   * @param c the container.
+   * @return an array or bitmap container with the same elements of {@code c}.
+   */
+  private static Container unrun(Container c) {
+    return c instanceof RunContainer r ? r.toBitmap() : c;
+  }
+
+  /**
+   * Returns the union of the given containers.
+   *
+   * @param a a container.
+   * @param b another container.
+   * @return a new container, not sharing state with the operands.
+   */
+  private static Container or(Container a, Container b) {
+    a = unrun(a);
+    b = unrun(b);
+    if (a instanceof ArrayContainer && b instanceof BitmapContainer) {
+      final Container t = a;
+      a = b;
+      b = t;
+    }
+    if (a instanceof BitmapContainer x) {
+      final long[] words = x.words.clone();
+      if (b instanceof BitmapContainer y) for (int k = 0; k < WORDS; k++) words[k] |= y.words[k];
+      else ((ArrayContainer) b).setBitsIn(words);
+      return new BitmapContainer(words).normalize(); // a run operand may yield a sparse bitmap
+    }
+    final ArrayContainer x = (ArrayContainer) a, y = (ArrayContainer) b;
+    if (x.card + y.card > ARRAY_MAX) {
+      final long[] words = new long[WORDS];
+      x.setBitsIn(words);
+      y.setBitsIn(words);
+      return new BitmapContainer(words).normalize();
+    }
+    final char[] content = new char[x.card + y.card];
+    int i = 0, j = 0, k = 0;
+    while (i < x.card && j < y.card) {
+      if (x.content[i] < y.content[j]) content[k++] = x.content[i++];
+      else if (x.content[i] > y.content[j]) content[k++] = y.content[j++];
+      else {
+        content[k++] = x.content[i++];
+        j++;
+      }
+    }
+    while (i < x.card) content[k++] = x.content[i++];
+    while (j < y.card) content[k++] = y.content[j++];
+    return new ArrayContainer(content, k);
+  }
+
+  /**
+   * Returns the intersection of the given containers.
+   *
+   * @param a a container.
+   * @param b another container.
+   * @return a new container, not sharing state with the operands, or {@code null} if empty.
+   */
+  private static Container and(Container a, Container b) {
+    a = unrun(a);
+    b = unrun(b);
+    if (a instanceof BitmapContainer && b instanceof ArrayContainer) {
+      final Container t = a;
+      a = b;
+      b = t;
+    }
+    final Container result;
+    if (a instanceof BitmapContainer x) {
+      final BitmapContainer y = (BitmapContainer) b;
+      final long[] words = new long[WORDS];
+      for (int k = 0; k < WORDS; k++) words[k] = x.words[k] & y.words[k];
+      result = new BitmapContainer(words).normalize();
+    } else if (b instanceof BitmapContainer y) {
+      result = ((ArrayContainer) a).filter(y, true);
+    } else {
+      final ArrayContainer x = (ArrayContainer) a, y = (ArrayContainer) b;
+      final char[] content = new char[Math.min(x.card, y.card)];
+      int i = 0, j = 0, k = 0;
+      while (i < x.card && j < y.card) {
+        if (x.content[i] < y.content[j]) i++;
+        else if (x.content[i] > y.content[j]) j++;
+        else {
+          content[k++] = x.content[i++];
+          j++;
+        }
+      }
+      result = new ArrayContainer(content, k);
+    }
+    return result.cardinality() == 0 ? null : result;
+  }
+
+  /**
+   * Returns the difference between the given containers.
+   *
+   * @param a a container.
+   * @param b another container.
+   * @return a new container, not sharing state with the operands, or {@code null} if empty.
+   */
+  private static Container andNot(Container a, Container b) {
+    a = unrun(a);
+    b = unrun(b);
+    final Container result;
+    if (a instanceof BitmapContainer x) {
+      final long[] words = x.words.clone();
+      if (b instanceof BitmapContainer y) for (int k = 0; k < WORDS; k++) words[k] &= ~y.words[k];
+      else ((ArrayContainer) b).clearBitsIn(words);
+      result = new BitmapContainer(words).normalize();
+    } else if (b instanceof BitmapContainer y) {
+      result = ((ArrayContainer) a).filter(y, false);
+    } else {
+      final ArrayContainer x = (ArrayContainer) a, y = (ArrayContainer) b;
+      final char[] content = new char[x.card];
+      int i = 0, j = 0, k = 0;
+      while (i < x.card && j < y.card) {
+        if (x.content[i] < y.content[j]) content[k++] = x.content[i++];
+        else if (x.content[i] > y.content[j]) j++;
+        else {
+          i++;
+          j++;
+        }
+      }
+      while (i < x.card) content[k++] = x.content[i++];
+      result = new ArrayContainer(content, k);
+    }
+    return result.cardinality() == 0 ? null : result;
+  }
+
+  // Containers
+
+  /** A set of 16-bit values (represented as {@code char}s), the low part of a partition. */
+  private abstract static class Container {
+
+    /**
+     * Returns the number of values in this container.
+     *
+     * @return the cardinality of this container.
+     */
+    abstract int cardinality();
+
+    /**
+     * Tells if the given value is in this container.
+     *
+     * @param x the value.
+     * @return whether {@code x} belongs to this container.
+     */
+    abstract boolean contains(char x);
+
+    /**
+     * Adds the given value, possibly changing representation.
+     *
+     * @param x the value.
+     * @return the container holding the result (this one, or a new one replacing it).
+     */
+    abstract Container add(char x);
+
+    /**
+     * Removes the given value, possibly changing representation.
+     *
+     * @param x the value.
+     * @return the container holding the result (this one, or a new one replacing it).
+     */
+    abstract Container remove(char x);
+
+    /**
+     * Returns the minimum value in this container.
+     *
+     * @return the minimum value, must be called on non empty containers.
+     */
+    abstract int first();
+
+    /**
+     * Returns an iterator over the values of this container, in increasing order.
+     *
+     * @return the iterator.
+     */
+    abstract PrimitiveIterator.OfInt lows();
+
+    /**
+     * Returns a spliterator over the elements of the partition of this container.
+     *
+     * @param hi the key of the partition, shifted in the 16 most significant bits.
+     * @return a spliterator over the values of this container, each or-ed with {@code hi}, in
+     *     increasing order; the container must not be modified while it is in use.
+     */
+    abstract Spliterator.OfInt spliterator(int hi);
+
+    /**
+     * Returns a deep copy of this container.
+     *
+     * @return the copy.
+     */
+    abstract Container copy();
+
+    /**
+     * Returns the (approximate) number of bytes used to store the values.
+     *
+     * @return the size of the representation, in bytes.
+     */
+    abstract int sizeInBytes();
+
+    /**
+     * Returns the number of maximal runs of consecutive values in this container.
+     *
+     * @return the number of runs.
+     */
+    int numberOfRuns() {
+      int runs = 0, previous = -2;
+      for (PrimitiveIterator.OfInt it = lows(); it.hasNext(); ) {
+        final int x = it.nextInt();
+        if (x != previous + 1) runs++;
+        previous = x;
+      }
+      return runs;
+    }
+
+    /**
+     * Returns a run container with the same values of this container.
+     *
+     * @param runs the number of runs of this container.
+     * @return the run container.
+     */
+    RunContainer toRuns(int runs) {
+      final char[] starts = new char[runs], lengths = new char[runs];
+      int r = -1, previous = -2;
+      for (PrimitiveIterator.OfInt it = lows(); it.hasNext(); ) {
+        final int x = it.nextInt();
+        if (x != previous + 1) starts[++r] = (char) x;
+        else lengths[r]++;
+        previous = x;
+      }
+      return new RunContainer(starts, lengths, runs, cardinality());
+    }
+  }
+
+  /** A container storing its values in a sorted array. */
+  private static final class ArrayContainer extends Container {
+
+    /** The values, sorted in increasing order. */
+    private char[] content;
+
+    /** The number of values. */
+    private int card;
+
+    /*
+     * RI: 0 <= card <= min(content.length, ARRAY_MAX), content[0..card) strictly increasing
+     * AF: the values content[0], ..., content[card - 1]
+     */
+
+    /**
+     * Builds an empty container.
+     *
+     * @param capacity the initial capacity.
+     */
+    ArrayContainer(int capacity) {
+      content = new char[capacity];
+      card = 0;
+    }
+
+    /**
+     * Builds a container from the given values.
+     *
+     * @param content the values, sorted in increasing order (not copied).
+     * @param card the number of values in {@code content}.
+     */
+    ArrayContainer(char[] content, int card) {
+      this.content = content;
+      this.card = card;
+    }
+
+    @Override
+    int cardinality() {
+      return card;
+    }
+
+    @Override
+    boolean contains(char x) {
+      return Arrays.binarySearch(content, 0, card, x) >= 0;
+    }
+
+    @Override
+    Container add(char x) {
+      int i = Arrays.binarySearch(content, 0, card, x);
+      if (i >= 0) return this;
+      if (card == ARRAY_MAX) return toBitmap().add(x);
+      i = -i - 1;
+      if (card == content.length)
+        content = Arrays.copyOf(content, Math.min(ARRAY_MAX, Math.max(INITIAL_CAPACITY, card * 2)));
+      System.arraycopy(content, i, content, i + 1, card - i);
+      content[i] = x;
+      card++;
+      return this;
+    }
+
+    @Override
+    Container remove(char x) {
+      final int i = Arrays.binarySearch(content, 0, card, x);
+      if (i < 0) return this;
+      System.arraycopy(content, i + 1, content, i, card - i - 1);
+      card--;
+      return this;
+    }
+
+    @Override
+    int first() {
+      return content[0];
+    }
+
+    @Override
+    PrimitiveIterator.OfInt lows() {
+      return new PrimitiveIterator.OfInt() {
+
+        /** The index of the next value to return. */
+        private int idx = 0;
+
+        @Override
+        public boolean hasNext() {
+          return idx < card;
+        }
+
+        @Override
+        public int nextInt() {
+          if (!hasNext()) throw new NoSuchElementException();
+          return content[idx++];
+        }
+      };
+    }
+
+    @Override
+    Spliterator.OfInt spliterator(int hi) {
+      return new ArraySpliterator(hi, 0, card);
+    }
+
+    /** A spliterator over a range of indices of {@link #content}. */
+    private final class ArraySpliterator extends ContainerSpliterator {
+
+      /** The index of the next value to return. */
+      private int idx;
+
+      /** The index following the last value in the range. */
+      private final int end;
+
+      /*
+       * RI: 0 <= idx <= end <= card, remaining == end - idx
+       * AF: the values content[idx], ..., content[end - 1]
+       */
+
+      /**
+       * Creates a spliterator over the given range of indices.
+       *
+       * @param hi the key of the partition, already shifted.
+       * @param from the index of the first value.
+       * @param end the index following the last value.
+       */
+      ArraySpliterator(int hi, int from, int end) {
+        super(hi, end - from);
+        this.idx = from;
+        this.end = end;
+      }
+
+      @Override
+      public boolean tryAdvance(IntConsumer action) {
+        Objects.requireNonNull(action);
+        if (idx == end) return false;
+        remaining--;
+        action.accept(hi | content[idx++]);
+        return true;
+      }
+
+      @Override
+      public void forEachRemaining(IntConsumer action) {
+        Objects.requireNonNull(action);
+        for (; idx < end; idx++) action.accept(hi | content[idx]);
+        remaining = 0;
+      }
+
+      @Override
+      public Spliterator.OfInt trySplit() {
+        final int mid = (idx + end) >>> 1;
+        if (mid == idx) return null;
+        final ArraySpliterator prefix = new ArraySpliterator(hi, idx, mid);
+        idx = mid;
+        remaining = end - mid;
+        return prefix;
+      }
+    }
+
+    @Override
+    Container copy() {
+      return new ArrayContainer(Arrays.copyOf(content, card), card);
+    }
+
+    @Override
+    int sizeInBytes() {
+      return 2 * card;
+    }
+
+    /**
+     * Sets the bits corresponding to the values of this container.
+     *
+     * @param words the bitmap to update.
+     */
+    void setBitsIn(long[] words) {
+      for (int i = 0; i < card; i++) words[content[i] >>> 6] |= 1L << content[i];
+    }
+
+    /**
+     * Clears the bits corresponding to the values of this container.
+     *
+     * @param words the bitmap to update.
+     */
+    void clearBitsIn(long[] words) {
+      for (int i = 0; i < card; i++) words[content[i] >>> 6] &= ~(1L << content[i]);
+    }
+
+    /**
+     * Returns the values of this container that do, or do not, belong to the given bitmap.
+     *
+     * @param b the bitmap.
+     * @param in whether to keep the values belonging to {@code b}, or the others.
+     * @return a new array container with the selected values.
+     */
+    ArrayContainer filter(BitmapContainer b, boolean in) {
+      final char[] result = new char[card];
+      int k = 0;
+      for (int i = 0; i < card; i++) if (b.contains(content[i]) == in) result[k++] = content[i];
+      return new ArrayContainer(result, k);
+    }
+
+    /**
+     * Returns a bitmap container with the same values of this container.
+     *
+     * @return the bitmap container.
+     */
+    BitmapContainer toBitmap() {
+      final long[] words = new long[WORDS];
+      setBitsIn(words);
+      return new BitmapContainer(words, card);
+    }
+  }
+
+  /** A container storing its values as a bitmap of \( 2^{16} \) bits. */
+  private static final class BitmapContainer extends Container {
+
+    /** The bitmap: {@code x} is present iff bit {@code x % 64} of {@code words[x / 64]} is set. */
+    private final long[] words;
+
+    /** The number of values. */
+    private int card;
+
+    /*
+     * RI: words.length == WORDS, card == number of bits set in words
+     * AF: the values x such that words[x >>> 6] & (1L << x) != 0
+     */
+
+    /**
+     * Builds a container from the given bitmap.
+     *
+     * @param words the bitmap (not copied).
+     */
+    BitmapContainer(long[] words) {
+      this.words = words;
+      int card = 0;
+      for (long w : words) card += Long.bitCount(w);
+      this.card = card;
+    }
+
+    /**
+     * Builds a container from the given bitmap, whose cardinality is known.
+     *
+     * @param words the bitmap (not copied).
+     * @param card the number of bits set in {@code words}.
+     */
+    BitmapContainer(long[] words, int card) {
+      this.words = words;
+      this.card = card;
+    }
+
+    @Override
+    int cardinality() {
+      return card;
+    }
+
+    @Override
+    boolean contains(char x) {
+      return (words[x >>> 6] & (1L << x)) != 0;
+    }
+
+    @Override
+    Container add(char x) {
+      final long w = words[x >>> 6];
+      final long nw = w | (1L << x);
+      if (nw != w) {
+        words[x >>> 6] = nw;
+        card++;
+      }
+      return this;
+    }
+
+    @Override
+    Container remove(char x) {
+      final long w = words[x >>> 6];
+      final long nw = w & ~(1L << x);
+      if (nw == w) return this;
+      words[x >>> 6] = nw;
+      card--;
+      return normalize();
+    }
+
+    @Override
+    int first() {
+      int i = 0;
+      while (words[i] == 0) i++;
+      return i << 6 | Long.numberOfTrailingZeros(words[i]);
+    }
+
+    @Override
+    PrimitiveIterator.OfInt lows() {
+      return new PrimitiveIterator.OfInt() {
+
+        /** The index of the word being iterated. */
+        private int idx = 0;
+
+        /** The bits of the word being iterated that have not been returned yet. */
+        private long bits = words[0];
+
+        @Override
+        public boolean hasNext() {
+          while (bits == 0 && idx < WORDS - 1) bits = words[++idx];
+          return bits != 0;
+        }
+
+        @Override
+        public int nextInt() {
+          if (!hasNext()) throw new NoSuchElementException();
+          final int x = idx << 6 | Long.numberOfTrailingZeros(bits);
+          bits &= bits - 1;
+          return x;
+        }
+      };
+    }
+
+    @Override
+    Spliterator.OfInt spliterator(int hi) {
+      int from = 0, end = WORDS;
+      while (words[from] == 0) from++;
+      while (words[end - 1] == 0) end--;
+      return new BitmapSpliterator(hi, from, end, words[from], card);
+    }
+
+    /** A spliterator over a range of {@link #words}. */
+    private final class BitmapSpliterator extends ContainerSpliterator {
+
+      /** The index of the word being iterated. */
+      private int idx;
+
+      /** The index following the last word in the range. */
+      private final int end;
+
+      /** The bits of the word being iterated that have not been returned yet. */
+      private long bits;
+
+      /*
+       * RI: 0 <= idx < end <= WORDS, remaining == bitCount(bits) + the bits set in
+       *     words[idx + 1..end)
+       * AF: the values corresponding to the bits set in bits and in words[idx + 1..end)
+       */
+
+      /**
+       * Creates a spliterator over the given range of words.
+       *
+       * @param hi the key of the partition, already shifted.
+       * @param from the index of the first word.
+       * @param end the index following the last word, must be greater than {@code from}.
+       * @param bits the bits of the first word still to return.
+       * @param size the number of values in the range.
+       */
+      BitmapSpliterator(int hi, int from, int end, long bits, long size) {
+        super(hi, size);
+        this.idx = from;
+        this.end = end;
+        this.bits = bits;
+      }
+
+      @Override
+      public boolean tryAdvance(IntConsumer action) {
+        Objects.requireNonNull(action);
+        while (bits == 0 && idx < end - 1) bits = words[++idx];
+        if (bits == 0) return false;
+        remaining--;
+        action.accept(hi | idx << 6 | Long.numberOfTrailingZeros(bits));
+        bits &= bits - 1;
+        return true;
+      }
+
+      @Override
+      public void forEachRemaining(IntConsumer action) {
+        Objects.requireNonNull(action);
+        for (long w = bits; ; w = words[++idx]) {
+          for (final int base = hi | idx << 6; w != 0; w &= w - 1)
+            action.accept(base | Long.numberOfTrailingZeros(w));
+          if (idx == end - 1) break;
+        }
+        bits = 0;
+        remaining = 0;
+      }
+
+      @Override
+      public Spliterator.OfInt trySplit() {
+        final int mid = (idx + end) >>> 1;
+        if (mid == idx) return null;
+        long prefixSize = Long.bitCount(bits);
+        for (int k = idx + 1; k < mid; k++) prefixSize += Long.bitCount(words[k]);
+        final BitmapSpliterator prefix = new BitmapSpliterator(hi, idx, mid, bits, prefixSize);
+        idx = mid;
+        bits = words[mid];
+        remaining -= prefixSize;
+        return prefix;
+      }
+    }
+
+    @Override
+    Container copy() {
+      return new BitmapContainer(words.clone(), card);
+    }
+
+    @Override
+    int sizeInBytes() {
+      return 8 * WORDS;
+    }
+
+    @Override
+    int numberOfRuns() {
+      int runs = 0;
+      long carry = 0;
+      for (long w : words) {
+        runs += Long.bitCount(w & ~(w << 1 | carry)); // bits that start a run
+        carry = w >>> 63;
+      }
+      return runs;
+    }
+
+    /**
+     * Returns an array container if the cardinality is small enough, or this container.
+     *
+     * @return the most appropriate representation of the values of this container.
+     */
+    Container normalize() {
+      if (card > ARRAY_MAX) return this;
+      final char[] content = new char[card];
+      int k = 0;
+      for (int i = 0; i < WORDS; i++)
+        for (long w = words[i]; w != 0; w &= w - 1)
+          content[k++] = (char) (i << 6 | Long.numberOfTrailingZeros(w));
+      return new ArrayContainer(content, card);
+    }
+  }
+
+  /** A container storing its values as sorted runs of consecutive values. */
+  private static final class RunContainer extends Container {
+
+    /** The first value of each run, in increasing order. */
+    private final char[] starts;
+
+    /** The length, minus one, of each run. */
+    private final char[] lengths;
+
+    /** The number of runs. */
+    private final int runs;
+
+    /** The number of values. */
+    private final int card;
+
+    /*
+     * RI: 0 < runs <= starts.length == lengths.length,
+     *     starts[i] + lengths[i] + 1 < starts[i + 1] for 0 <= i < runs - 1,
+     *     card == sum of lengths[i] + 1 for 0 <= i < runs
+     * AF: the values starts[i], starts[i] + 1, ..., starts[i] + lengths[i] for 0 <= i < runs
+     */
+
+    /**
+     * Builds a container from the given runs.
+     *
+     * @param starts the first value of each run (not copied).
+     * @param lengths the length, minus one, of each run (not copied).
+     * @param runs the number of runs.
+     * @param card the number of values.
+     */
+    RunContainer(char[] starts, char[] lengths, int runs, int card) {
+      this.starts = starts;
+      this.lengths = lengths;
+      this.runs = runs;
+      this.card = card;
+    }
+
+    /**
+     * Returns the number of bytes used by a run container with the given number of runs.
+     *
+     * @param runs the number of runs.
+     * @return the size of the representation, in bytes.
+     */
+    static int sizeInBytes(int runs) {
+      return 4 * runs;
+    }
+
+    @Override
+    int cardinality() {
+      return card;
+    }
+
+    @Override
+    boolean contains(char x) {
+      int i = Arrays.binarySearch(starts, 0, runs, x);
+      if (i >= 0) return true;
+      i = -i - 2;
+      return i >= 0 && x - starts[i] <= lengths[i];
+    }
+
+    /**
+     * Returns an array or bitmap container with the same values of this container.
+     *
+     * @return the container.
+     */
+    Container toStandard() {
+      return toBitmap().normalize();
+    }
+
+    @Override
+    Container add(char x) {
+      return contains(x) ? this : toStandard().add(x);
+    }
+
+    @Override
+    Container remove(char x) {
+      return contains(x) ? toStandard().remove(x) : this;
+    }
+
+    @Override
+    int first() {
+      return starts[0];
+    }
+
+    @Override
+    PrimitiveIterator.OfInt lows() {
+      return new PrimitiveIterator.OfInt() {
+
+        /** The index of the run being iterated. */
+        private int idx = 0;
+
+        /** The offset, in the run being iterated, of the next value to return. */
+        private int offset = 0;
+
+        @Override
+        public boolean hasNext() {
+          return idx < runs;
+        }
+
+        @Override
+        public int nextInt() {
+          if (!hasNext()) throw new NoSuchElementException();
+          final int x = starts[idx] + offset;
+          if (offset++ == lengths[idx]) {
+            idx++;
+            offset = 0;
+          }
+          return x;
+        }
+      };
+    }
+
+    @Override
+    Spliterator.OfInt spliterator(int hi) {
+      return new RunSpliterator(hi, 0, runs, 0, card);
+    }
+
+    /** A spliterator over a range of runs. */
+    private final class RunSpliterator extends ContainerSpliterator {
+
+      /** The index of the run being iterated. */
+      private int idx;
+
+      /** The index following the last run in the range. */
+      private final int end;
+
+      /** The offset, in the run being iterated, of the next value to return. */
+      private int offset;
+
+      /*
+       * RI: 0 <= idx <= end <= runs, 0 <= offset <= lengths[idx] if idx < end, and remaining is
+       *     the number of values from starts[idx] + offset to the end of run end - 1
+       * AF: the values starts[idx] + offset, ..., starts[idx] + lengths[idx], followed by those of
+       *     the runs from idx + 1 (included) to end (excluded)
+       */
+
+      /**
+       * Creates a spliterator over the given range of runs.
+       *
+       * @param hi the key of the partition, already shifted.
+       * @param from the index of the first run.
+       * @param end the index following the last run.
+       * @param offset the offset of the first value to return in the first run.
+       * @param size the number of values in the range.
+       */
+      RunSpliterator(int hi, int from, int end, int offset, long size) {
+        super(hi, size);
+        this.idx = from;
+        this.end = end;
+        this.offset = offset;
+      }
+
+      @Override
+      public boolean tryAdvance(IntConsumer action) {
+        Objects.requireNonNull(action);
+        if (idx == end) return false;
+        remaining--;
+        final int x = starts[idx] + offset;
+        if (offset++ == lengths[idx]) {
+          idx++;
+          offset = 0;
+        }
+        action.accept(hi | x);
+        return true;
+      }
+
+      @Override
+      public void forEachRemaining(IntConsumer action) {
+        Objects.requireNonNull(action);
+        for (; idx < end; idx++, offset = 0) {
+          final int last = starts[idx] + lengths[idx];
+          for (int x = starts[idx] + offset; x <= last; x++) action.accept(hi | x);
+        }
+        remaining = 0;
+      }
+
+      @Override
+      public Spliterator.OfInt trySplit() {
+        final int mid = (idx + end) >>> 1;
+        if (mid == idx) return null;
+        long prefixSize = lengths[idx] + 1 - offset;
+        for (int k = idx + 1; k < mid; k++) prefixSize += lengths[k] + 1;
+        final RunSpliterator prefix = new RunSpliterator(hi, idx, mid, offset, prefixSize);
+        idx = mid;
+        offset = 0;
+        remaining -= prefixSize;
+        return prefix;
+      }
+    }
+
+    @Override
+    Container copy() {
+      return this; // run containers are never modified in place
+    }
+
+    @Override
+    int sizeInBytes() {
+      return sizeInBytes(runs);
+    }
+
+    @Override
+    int numberOfRuns() {
+      return runs;
+    }
+
+    /**
+     * Returns a bitmap container with the same values of this container.
+     *
+     * @return the bitmap container.
+     */
+    BitmapContainer toBitmap() {
+      final long[] words = new long[WORDS];
+      for (int i = 0; i < runs; i++) {
+        final int from = starts[i], to = from + lengths[i] + 1;
+        final int first = from >>> 6, last = (to - 1) >>> 6;
+        if (first == last) words[first] |= (-1L << from) & (-1L >>> -to);
+        else {
+          words[first] |= -1L << from;
+          for (int k = first + 1; k < last; k++) words[k] = -1L;
+          words[last] |= -1L >>> -to;
+        }
+      }
+      return new BitmapContainer(words, card);
+    }
+  }
+}
@@ -0,0 +1,126 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h17;
+
+import java.util.Arrays;
+import java.util.Scanner;
+
+/** A class to test the set algebra of {@link BitmapIntSet}. */
+public class BitmapIntSetClient {
+
+  /** . */
+  private BitmapIntSetClient() {}
+
+  /**
+   * Tests the set algebra of {@link BitmapIntSet}.
+   *
+   * <p>This method reads from standard input lines of the form {@code + s from to step} (or {@code
+   * - s from to step}), that insert in (or remove from) the set {@code s}, either {@code a} or
+   * {@code b}, the values from {@code from} (included) to {@code to} (excluded) with the given
+   * step. Then it emits in the standard output a summary of the two sets, of their union,
+   * intersection and differences, and the cardinality of their intersection. Finally, it tells
+   * whether the hash codes of the results of the set algebra agree with those of the same sets
+   * built by insertions, even after removing their minimum.
+   *
+   * <p>Since the sets can be large, each one is summarized by its size, first and last elements
+   * and the sum of its elements, each multiplied by its (one-based) position in the iteration
+   * order, computed modulo \( 2^{64} \).
+   *
+   * @param args the names of the sets to run-optimize before computing the algebra, if any.
+   */
+  public static void main(String[] args) {
+    final BitmapIntSet a = new BitmapIntSet(), b = new BitmapIntSet();
+    try (Scanner sc = new Scanner(System.in)) {
+      while (sc.hasNext()) {
+        final boolean insert = sc.next().equals("+");
+        final BitmapIntSet set = sc.next().equals("a") ? a : b;
+        final int from = sc.nextInt(), to = sc.nextInt(), step = sc.nextInt();
+        for (long x = from; x < to; x += step) {
+          if (insert) set.insert((int) x);
+          else set.remove((int) x);
+        }
+      }
+    }
+    if (Arrays.asList(args).contains("a")) a.runOptimize();
+    if (Arrays.asList(args).contains("b")) b.runOptimize();
+    System.out.println(summary("A", a));
+    System.out.println(summary("B", b));
+    System.out.println(summary("Union", a.union(b)));
+    System.out.println(summary("Intersection", a.intersect(b)));
+    System.out.println(summary("A minus B", a.andNot(b)));
+    System.out.println(summary("B minus A", b.andNot(a)));
+    System.out.println("Intersection cardinality: " + a.intersectionCardinality(b));
+    System.out.println(
+        "Hashes consistent: "
+            + (consistent(a.union(b))
+                && consistent(a.intersect(b))
+                && consistent(a.andNot(b))
+                && consistent(b.andNot(a))));
+  }
+
+  /**
+   * Tells whether the hash code of the given set agrees with that of a copy built by insertions.
+   *
+   * <p>The minimum of the set, if any, is removed from both the set and the copy before comparing
+   * them.
+   *
+   * @param set the set, it is modified.
+   * @return whether the set and the copy are equal and have the same hash code.
+   */
+  private static boolean consistent(BitmapIntSet set) {
+    final BitmapIntSet copy = new BitmapIntSet();
+    set.forEachInt(copy::insert);
+    if (set.size() > 0) {
+      final int x = set.choose();
+      set.remove(x);
+      copy.remove(x);
+    }
+    return set.hashCode() == copy.hashCode() && set.equals(copy);
+  }
+
+  /**
+   * Returns a summary of the given set.
+   *
+   * @param name the name of the set.
+   * @param set the set.
+   * @return a summary of the set, as described in {@link #main(String[])}.
+   */
+  private static String summary(String name, BitmapIntSet set) {
+    if (set.size() == 0) return name + ": size 0";
+    long position = 0, checksum = 0;
+    int first = 0, last = 0;
+    for (int x : set) {
+      if (position++ == 0) first = x;
+      last = x;
+      checksum += position * x;
+    }
+    return name
+        + ": size "
+        + set.size()
+        + ", first "
+        + first
+        + ", last "
+        + last
+        + ", checksum "
+        + checksum;
+  }
+}
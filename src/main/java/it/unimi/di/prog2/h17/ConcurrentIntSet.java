@@ -0,0 +1,365 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h17;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+/**
+ * {@code ConcurrentIntSet}s are mutable, unbounded sets of integers that can be shared among
+ * threads.
+ *
+ * <p>Elements are partitioned, according to (the high bits of) their hash, among a fixed number of
+ * <em>segments</em>, each a {@link HashIntSet} guarded by its own lock (<em>lock striping</em>):
+ * {@link #insert(int)}, {@link #remove(int)} and {@link #isIn(int)} lock just the segment of their
+ * argument, hence they are linearizable, but threads working on different segments do not contend.
+ * The size is kept by a {@link LongAdder}, so that updating it does not serialize threads either;
+ * as a consequence, {@link #size()} is exact only in absence of concurrent updates.
+ *
+ * <p>Iterators are <em>weakly consistent</em>: they never throw {@link
+ * java.util.ConcurrentModificationException}, and return the elements of each segment as they
+ * were when the iterator reached it.
+ *
+ * <p>A typical ConcurrentIntSet is \( S = \{x_1, \ldots, x_n \} \).
+ */
+public class ConcurrentIntSet extends AbstractIntSet {
+
+  // Fields
+
+  /** The default number of segments. */
+  private static final int DEFAULT_SEGMENTS = 64;
+
+  /** The segments, each containing the elements whose hash has a given prefix. */
+  private final HashIntSet[] segment;
+
+  /** The number of low bits of the hash to discard to get the index of a segment. */
+  private final int shift;
+
+  /** The number of elements of this set. */
+  private final LongAdder count = new LongAdder();
+
+  /*
+   * RI:
+   *
+   * - segment != null, segment.length is a power of two and no segment is null
+   * - shift == 32 - log2(segment.length)
+   * - every element x of segment[i] is such that segmentOf(x) == segment[i]
+   * - in absence of concurrent updates, count.sum() is the sum of the sizes of the segments
+   * - the inherited size and hash fields are not used (and are always 0)
+   *
+   * AF:
+   *
+   *  - represents the set that is the union of the segments
+   *
+   */
+
+  // Constructors
+
+  /**
+   * Initializes this set to be empty.
+   *
+   * <p>Builds the set \( S = \varnothing \).
+   */
+  public ConcurrentIntSet() {
+    this(DEFAULT_SEGMENTS);
+  }
+
+  /**
+   * Initializes this set to be empty, with the given number of segments.
+   *
+   * <p>Builds the set \( S = \varnothing \).
+   *
+   * @param concurrencyLevel the minimum number of segments (rounded up to a power of two), that
+   *     is the number of threads that can update the set without contention.
+   * @throws IllegalArgumentException if {@code concurrencyLevel} is not positive, or greater than
+   *     {@code 2^16}.
+   */
+  public ConcurrentIntSet(int concurrencyLevel) throws IllegalArgumentException {
+    super();
+    if (concurrencyLevel <= 0 || concurrencyLevel > 1 << 16)
+      throw new IllegalArgumentException("The concurrency level must be in [1, 2^16]");
+    final int bits = 32 - Integer.numberOfLeadingZeros(concurrencyLevel - 1);
+    segment = new HashIntSet[1 << bits];
+    for (int i = 0; i < segment.length; i++) segment[i] = new HashIntSet();
+    shift = 32 - bits;
+  }
+
+  // Methods
+
+  /**
+   * Returns the segment that contains the given element, if it belongs to this set.
+   *
+   * @param x the element.
+   * @return the segment of {@code x}.
+   */
+  private HashIntSet segmentOf(int x) {
+    final int h = x * 0x9E3779B9; // the same Fibonacci hashing of HashIntSet, but the high bits
+    return segment[shift == 32 ? 0 : h >>> shift];
+  }
+
+  /**
+   * Returns the elements of a segment, reading them while holding its lock.
+   *
+   * @param s the segment.
+   * @return an array containing the elements of {@code s}.
+   */
+  private static int[] snapshot(HashIntSet s) {
+    synchronized (s) {
+      final int[] result = new int[s.size()];
+      final PrimitiveIterator.OfInt it = s.intIterator();
+      for (int i = 0; i < result.length; i++) result[i] = it.nextInt();
+      return result;
+    }
+  }
+
+  /**
+   * Adds the given element to this set.
+   *
+   * <p>This method modifies the object, that is: \( S' = S \cup \{ x \} \).
+   *
+   * @param x the element to be added.
+   */
+  @Override
+  public void insert(int x) {
+    final HashIntSet s = segmentOf(x);
+    synchronized (s) {
+      final int before = s.size();
+      s.insert(x);
+      if (s.size() == before) return;
+    }
+    count.increment();
+  }
+
+  /**
+   * Removes the given element from this set.
+   *
+   * <p>This method modifies the object, that is: \( S' = S \setminus \{ x \} \).
+   *
+   * @param x the element to be removed.
+   */
+  @Override
+  public void remove(int x) {
+    final HashIntSet s = segmentOf(x);
+    synchronized (s) {
+      final int before = s.size();
+      s.remove(x);
+      if (s.size() == before) return;
+    }
+    count.decrement();
+  }
+
+  /**
+   * Tells if the given element is in this set.
+   *
+   * <p>Answers the question \( x\in S \).
+   *
+   * @param x the element to look for.
+   * @return whether the given element belongs to this set, or not.
+   */
+  @Override
+  public boolean isIn(int x) {
+    final HashIntSet s = segmentOf(x);
+    synchronized (s) {
+      return s.isIn(x);
+    }
+  }
+
+  /**
+   * Returns the cardinality of this set.
+   *
+   * <p>Responds with \( |S| \); if other threads are updating the set, the result is just an
+   * estimate.
+   *
+   * @return the size of this set.
+   */
+  @Override
+  public int size() {
+    return (int) count.sum();
+  }
+
+  /**
+   * Returns an element from this set.
+   *
+   * @return an arbitrary element from this set.
+   * @throws NoSuchElementException if this set is empty.
+   */
+  @Override
+  public int choose() throws NoSuchElementException {
+    for (HashIntSet s : segment)
+      synchronized (s) {
+        if (s.size() > 0) return s.choose();
+      }
+    throw new NoSuchElementException("Can't choose from an empty set");
+  }
+
+  @Override
+  protected boolean hasConstantTimeLookup() {
+    return true;
+  }
+
+  /**
+   * Returns the hash code of this set, that is the sum of the hash codes of its segments.
+   *
+   * <p>If other threads are updating the set, the result is just an estimate.
+   *
+   * @return the hash code of this set.
+   */
+  @Override
+  public int hashCode() {
+    int result = 0;
+    for (HashIntSet s : segment)
+      synchronized (s) {
+        result += s.hashCode();
+      }
+    return result;
+  }
+
+  @Override
+  public void forEachInt(IntConsumer action) {
+    Objects.requireNonNull(action);
+    for (HashIntSet s : segment) for (int e : snapshot(s)) action.accept(e);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt intIterator() {
+    return new PrimitiveIterator.OfInt() {
+
+      /** The index of the next segment to visit. */
+      private int next = 0;
+
+      /** The elements of the last visited segment. */
+      private int[] current = new int[0];
+
+      /** The position in {@link #current} of the next element to return. */
+      private int pos = 0;
+
+      /*
+       * RI: 0 <= next <= segment.length, current != null, 0 <= pos <= current.length
+       * AF: the elements still to return are current[pos..] followed by the elements of the
+       *     segments from next on (at the time they will be visited)
+       */
+
+      @Override
+      public boolean hasNext() {
+        while (pos == current.length && next < segment.length) {
+          current = snapshot(segment[next++]);
+          pos = 0;
+        }
+        return pos < current.length;
+      }
+
+      @Override
+      public int nextInt() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return current[pos++];
+      }
+    };
+  }
+
+  /**
+   * Returns a spliterator over the elements of this set that does not box them.
+   *
+   * <p>The spliterator splits the segments in halves, and is weakly consistent as {@link
+   * #intIterator()}: it reports {@link Spliterator#CONCURRENT}, hence its size is just an estimate.
+   *
+   * @return a spliterator over the elements of this set.
+   */
+  @Override
+  public Spliterator.OfInt intSpliterator() {
+    return new SegmentSpliterator(0, segment.length);
+  }
+
+  /** A weakly consistent spliterator over the elements in a range of segments. */
+  private final class SegmentSpliterator implements Spliterator.OfInt {
+
+    /** The index of the next segment to visit. */
+    private int next;
+
+    /** The index following the last segment in the range. */
+    private final int end;
+
+    /** The elements of the last visited segment. */
+    private int[] current = new int[0];
+
+    /** The position in {@link #current} of the next element to return. */
+    private int pos = 0;
+
+    /*
+     * RI: 0 <= next <= end <= segment.length, current != null, 0 <= pos <= current.length
+     * AF: the elements still to return are current[pos..] followed by the elements of the
+     *     segments from next (included) to end (excluded), at the time they will be visited
+     */
+
+    /**
+     * Creates a spliterator over the given range of segments.
+     *
+     * @param from the index of the first segment.
+     * @param end the index following the last segment.
+     */
+    SegmentSpliterator(int from, int end) {
+      this.next = from;
+      this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+      Objects.requireNonNull(action);
+      while (pos == current.length && next < end) {
+        current = snapshot(segment[next++]);
+        pos = 0;
+      }
+      if (pos == current.length) return false;
+      action.accept(current[pos++]);
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+      Objects.requireNonNull(action);
+      while (pos < current.length) action.accept(current[pos++]);
+      while (next < end) for (int e : snapshot(segment[next++])) action.accept(e);
+    }
+
+    @Override
+    public Spliterator.OfInt trySplit() {
+      final int mid = (next + end) >>> 1;
+      if (mid == next) return null;
+      final SegmentSpliterator prefix = new SegmentSpliterator(next, mid);
+      next = mid;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return (current.length - pos) + count.sum() * (end - next) / segment.length;
+    }
+
+    @Override
+    public int characteristics() {
+      return Spliterator.DISTINCT | Spliterator.CONCURRENT;
+    }
+  }
+}
@@ -0,0 +1,140 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h17;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/** A class to exercise {@link ConcurrentIntSet} with many threads. */
+public class ConcurrentIntSetClient {
+
+  /** . */
+  private ConcurrentIntSetClient() {}
+
+  /**
+   * Tests concurrent insertions, removals, lookups and iterations of a {@link ConcurrentIntSet}.
+   *
+   * <p>Reads a list of integers from the standard input, ignoring the repeated ones, and assigns
+   * each of them to a group according to its position modulo 4. Some inserter threads (4, unless
+   * the first parameter tells otherwise) insert the integers whose positions are congruent to their
+   * index modulo the number of inserters, and all of them insert the integers of group 0. As many
+   * remover threads wait for the integers of group 1 assigned to them (in the same way, by their
+   * position divided by 4) to be in the set, and remove them; then, once every inserter is done,
+   * all of them remove the integers of group 3. Meanwhile, a reader thread repeatedly iterates over
+   * the set and reads its size. The second parameter, if present, is the concurrency level of the
+   * set.
+   *
+   * <p>Once every thread is done, the size of the set is emitted on the standard output, followed
+   * by whether the set is equal to, and has the same hash code of, a {@link HashIntSet} containing
+   * the integers of groups 0 and 2, and by whether every iteration returned distinct integers read
+   * from the input (all of those of groups 0 and 2, if it started after the inserters were done)
+   * and every size was in range. Finally, the elements of the set are emitted in increasing order.
+   *
+   * @param args the number of inserters (and removers) and, optionally, the concurrency level.
+   */
+  public static void main(String[] args) {
+    final int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+    final ConcurrentIntSet set =
+        args.length > 1 ? new ConcurrentIntSet(Integer.parseInt(args[1])) : new ConcurrentIntSet();
+    final HashIntSet read = new HashIntSet();
+    int[] input = new int[16];
+    int n = 0;
+    try (Scanner s = new Scanner(System.in)) {
+      while (s.hasNextInt()) {
+        final int x = s.nextInt();
+        if (read.isIn(x)) continue;
+        read.insert(x);
+        if (n == input.length) input = Arrays.copyOf(input, 2 * n);
+        input[n++] = x;
+      }
+    }
+    final int[] values = Arrays.copyOf(input, n);
+    final CountDownLatch inserted = new CountDownLatch(threads);
+    final AtomicBoolean done = new AtomicBoolean();
+    final boolean[] consistent = {true}; // written only by the reader
+    final Thread[] workers = new Thread[2 * threads];
+    for (int t = 0; t < threads; t++) {
+      final int index = t;
+      workers[t] =
+          new Thread(
+              () -> {
+                for (int i = 0; i < values.length; i++)
+                  if (i % threads == index || i % 4 == 0) set.insert(values[i]);
+                inserted.countDown();
+              });
+      workers[threads + t] =
+          new Thread(
+              () -> {
+                for (int i = 1 + 4 * index; i < values.length; i += 4 * threads) {
+                  while (!set.isIn(values[i])) Thread.yield();
+                  set.remove(values[i]);
+                }
+                try {
+                  inserted.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  return;
+                }
+                for (int i = 3; i < values.length; i += 4) set.remove(values[i]);
+              });
+    }
+    final Thread reader =
+        new Thread(
+            () -> {
+              do {
+                final boolean complete = inserted.getCount() == 0;
+                final HashIntSet seen = new HashIntSet();
+                for (PrimitiveIterator.OfInt it = set.intIterator(); it.hasNext(); ) {
+                  final int x = it.nextInt();
+                  if (!read.isIn(x) || seen.isIn(x)) consistent[0] = false;
+                  seen.insert(x);
+                }
+                if (complete)
+                  for (int i = 0; i < values.length; i += 2)
+                    if (!seen.isIn(values[i])) consistent[0] = false;
+                final int size = set.size();
+                if (size < 0 || size > values.length) consistent[0] = false;
+              } while (!done.get());
+            });
+    reader.start();
+    for (Thread worker : workers) worker.start();
+    try {
+      for (Thread worker : workers) worker.join();
+      done.set(true);
+      reader.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    final HashIntSet expected = new HashIntSet();
+    for (int i = 0; i < values.length; i += 2) expected.insert(values[i]);
+    System.out.println("Size: " + set.size());
+    System.out.println("Equal to sequential: " + (set.equals(expected) && expected.equals(set)));
+    System.out.println("Hash agrees: " + (set.hashCode() == expected.hashCode()));
+    System.out.println("Iterations consistent: " + consistent[0]);
+    System.out.println("Sorted:");
+    set.intStream().sorted().forEach(System.out::println);
+  }
+}
@@ -0,0 +1,301 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h17;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+
+/**
+ * {@code FrozenIntSet}s are immutable sets of integers, obtained by {@link
+ * AbstractIntSet#freeze()}.
+ *
+ * <p>Elements are stored in a table with exactly one slot per element, addressed by a
+ * <em>minimal perfect hash</em> function built by the "hash, displace and compress" (CHD)
+ * technique: elements are first split into small buckets, then, from the largest bucket down, a
+ * <em>pilot</em> is chosen for every bucket so that its elements land in free slots. The table
+ * doubles as a verification array, so that {@link #isIn(int)} computes two hashes and then reads
+ * one pilot and one slot, with no probing.
+ *
+ * <p>As all fields are final, instances can be shared among threads without synchronization;
+ * {@link #insert(int)} and {@link #remove(int)} throw {@link UnsupportedOperationException}.
+ *
+ * <p>A typical FrozenIntSet is \( S = \{x_1, \ldots, x_n \} \).
+ */
+public final class FrozenIntSet extends AbstractIntSet {
+
+  // Fields
+
+  /** The average number of elements per bucket. */
+  private static final int BUCKET_SIZE = 2;
+
+  /** The number of pilots tried for a bucket with many elements before changing the seed. */
+  private static final int MAX_PILOT = 1 << 16;
+
+  /** The seed of the hash function assigning elements to buckets. */
+  private final int seed;
+
+  /** The pilot of every bucket. */
+  private final int[] pilot;
+
+  /** The elements of this set, each in the slot given by the perfect hash function. */
+  private final int[] table;
+
+  /** The hash code, a copy of {@link #hash} that is final so to be safely published. */
+  private final int sum;
+
+  /*
+   * RI:
+   *
+   * - table != null and pilot != null
+   * - pilot.length == max(1, ceil(table.length / BUCKET_SIZE))
+   * - for all 0 <= i < table.length, slot(table[i]) == i (hence the elements are distinct)
+   * - size == table.length and hash == sum == the sum of mix(table[i])
+   *
+   * AF:
+   *
+   *  - represents the set S = { table[i] : 0 <= i < table.length }
+   *
+   */
+
+  // Constructors
+
+  /**
+   * Initializes this set to contain the elements of the given set.
+   *
+   * @param set the set whose elements are to be copied.
+   */
+  FrozenIntSet(AbstractIntSet set) {
+    super();
+    int[] elements = new int[set.size()];
+    int n = 0;
+    for (PrimitiveIterator.OfInt it = set.intIterator(); it.hasNext(); ) {
+      if (n == elements.length) elements = Arrays.copyOf(elements, Math.max(16, 2 * n));
+      elements[n++] = it.nextInt();
+    }
+    elements = Arrays.copyOf(elements, n);
+    table = new int[elements.length];
+    pilot = new int[Math.max(1, (elements.length + BUCKET_SIZE - 1) / BUCKET_SIZE)];
+    int s = 0;
+    while (!build(elements, s)) s++;
+    seed = s;
+    for (int x : elements) hash += mix(x);
+    size = elements.length;
+    sum = hash;
+  }
+
+  // Methods
+
+  /**
+   * Maps a 32-bit hash to an integer in a range, using its highest bits.
+   *
+   * @param h the hash.
+   * @param n the bound of the range.
+   * @return an integer in {@code [0, n)}, if {@code n} is positive.
+   */
+  private static int reduce(int h, int n) {
+    return (int) (((h & 0xFFFFFFFFL) * n) >>> 32);
+  }
+
+  /**
+   * Computes the slot of an element with a given hash, using the given pilot.
+   *
+   * @param h the hash of the element.
+   * @param p the pilot.
+   * @return the slot of the element.
+   */
+  private int slot(int h, int p) {
+    return reduce(mix(h + p * 0x9E3779B9), table.length);
+  }
+
+  /**
+   * Tries to build the perfect hash function for the given elements, filling the table and the
+   * pilots.
+   *
+   * <p>For a bucket with a single element the search for a pilot always succeeds, since {@code h +
+   * p * 0x9E3779B9} (and hence its {@link #mix(int) mix}) takes every possible value; for the other
+   * buckets it may fail, in which case another seed has to be used. Filling the last free slots
+   * takes most of the time, that is \( O(n \log n) \) in expectation.
+   *
+   * @param elements the (distinct) elements.
+   * @param seed the seed of the bucket hash function.
+   * @return whether the table has been filled.
+   */
+  private boolean build(int[] elements, int seed) {
+    final int n = elements.length, buckets = pilot.length;
+    final int[] hashes = new int[n];
+    final int[] start = new int[buckets + 1];
+    for (int i = 0; i < n; i++) {
+      hashes[i] = mix(elements[i] ^ seed);
+      start[reduce(hashes[i], buckets) + 1]++;
+    }
+    int maxSize = 0;
+    for (int b = 0; b < buckets; b++) {
+      maxSize = Math.max(maxSize, start[b + 1]);
+      start[b + 1] += start[b];
+    }
+    // the elements grouped by bucket
+    final int[] grouped = new int[n];
+    final int[] next = Arrays.copyOf(start, buckets);
+    for (int i = 0; i < n; i++) grouped[next[reduce(hashes[i], buckets)]++] = i;
+    // the buckets sorted by decreasing size
+    final int[] bySize = new int[maxSize + 2];
+    for (int b = 0; b < buckets; b++) bySize[maxSize - (start[b + 1] - start[b]) + 1]++;
+    for (int k = 0; k <= maxSize; k++) bySize[k + 1] += bySize[k];
+    final int[] order = new int[buckets];
+    for (int b = 0; b < buckets; b++) order[bySize[maxSize - (start[b + 1] - start[b])]++] = b;
+
+    final boolean[] taken = new boolean[n];
+    final int[] slots = new int[maxSize];
+    Arrays.fill(pilot, 0);
+    for (int b : order) {
+      final int from = start[b], len = start[b + 1] - from;
+      if (len == 0) break; // the remaining buckets are empty as well
+      int p = 0;
+      search:
+      while (true) {
+        for (int k = 0; k < len; k++) {
+          final int s = slot(hashes[grouped[from + k]], p);
+          if (taken[s]) {
+            for (int j = 0; j < k; j++) taken[slots[j]] = false;
+            if (++p == MAX_PILOT && len > 1) return false;
+            continue search;
+          }
+          taken[s] = true;
+          slots[k] = s;
+        }
+        break;
+      }
+      pilot[b] = p;
+      for (int k = 0; k < len; k++) table[slots[k]] = elements[grouped[from + k]];
+    }
+    return true;
+  }
+
+  /**
+   * Returns this set, that is already frozen.
+   *
+   * @return this set.
+   */
+  @Override
+  public FrozenIntSet freeze() {
+    return this;
+  }
+
+  /**
+   * Throws {@link UnsupportedOperationException}, since this set is immutable.
+   *
+   * @param x ignored.
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public void insert(int x) {
+    throw new UnsupportedOperationException("Can't insert into a frozen set");
+  }
+
+  /**
+   * Throws {@link UnsupportedOperationException}, since this set is immutable.
+   *
+   * @param x ignored.
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public void remove(int x) {
+    throw new UnsupportedOperationException("Can't remove from a frozen set");
+  }
+
+  /**
+   * Tells if the given element is in this set.
+   *
+   * <p>Answers the question \( x\in S \).
+   *
+   * @param x the element to look for.
+   * @return whether the given element belongs to this set, or not.
+   */
+  @Override
+  public boolean isIn(int x) {
+    if (table.length == 0) return false;
+    final int h = mix(x ^ seed);
+    return table[slot(h, pilot[reduce(h, pilot.length)])] == x;
+  }
+
+  @Override
+  public int size() {
+    return table.length;
+  }
+
+  @Override
+  public int choose() throws NoSuchElementException {
+    if (table.length == 0) throw new NoSuchElementException("Can't choose from an empty set");
+    return table[0];
+  }
+
+  @Override
+  protected boolean hasConstantTimeLookup() {
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    return sum;
+  }
+
+  @Override
+  public void forEachInt(IntConsumer action) {
+    Objects.requireNonNull(action);
+    for (int x : table) action.accept(x);
+  }
+
+  @Override
+  public Spliterator.OfInt intSpliterator() {
+    return Spliterators.spliterator(table, Spliterator.DISTINCT | Spliterator.IMMUTABLE);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt intIterator() {
+    return new PrimitiveIterator.OfInt() {
+
+      /** The index of the next element to return. */
+      private int idx = 0;
+
+      /*
+       * RI: 0 <= idx <= table.length
+       * AF: the next element to return is table[idx], or none if idx == table.length
+       */
+
+      @Override
+      public boolean hasNext() {
+        return idx < table.length;
+      }
+
+      @Override
+      public int nextInt() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return table[idx++];
+      }
+    };
+  }
+}
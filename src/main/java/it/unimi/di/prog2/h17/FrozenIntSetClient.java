@@ -0,0 +1,66 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h17;
+
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/** A class to test {@link FrozenIntSet}. */
+public class FrozenIntSetClient {
+
+  /** . */
+  private FrozenIntSetClient() {}
+
+  /**
+   * Tests the lookups and the immutability of {@link FrozenIntSet}.
+   *
+   * <p>This method reads integers from standard input and inserts them into an {@link
+   * ArrayIntSet}, that is then frozen; it emits in the standard output the size of the frozen set,
+   * whether it is equal to the original one, and whether each parameter belongs to it. Finally, it
+   * empties the original set and tries to remove an element from the frozen one, emitting both
+   * sizes.
+   *
+   * @param args the integers to look for.
+   */
+  public static void main(String[] args) {
+    final ArrayIntSet set = new ArrayIntSet();
+    try (Scanner sc = new Scanner(System.in)) {
+      while (sc.hasNextInt()) set.insert(sc.nextInt());
+    }
+    final FrozenIntSet frozen = set.freeze();
+    System.out.println("Size: " + frozen.size());
+    System.out.println("Equal: " + frozen.equals(set));
+    for (String arg : args) {
+      final int x = Integer.parseInt(arg);
+      System.out.println(x + ": " + frozen.isIn(x));
+    }
+    for (int x : frozen) set.remove(x);
+    try {
+      frozen.remove(frozen.choose());
+    } catch (UnsupportedOperationException e) {
+      System.out.println("Caught expected UnsupportedOperationException");
+    } catch (NoSuchElementException e) {
+      System.out.println("Empty");
+    }
+    System.out.println("Sizes after removal: " + set.size() + " " + frozen.size());
+  }
+}
@@ -0,0 +1,388 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h17;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+/**
+ * {@code HashIntSet}s are mutable, unbounded sets of integers.
+ *
+ * <p>Elements are stored in an open addressing hash table with linear probing, so that {@link
+ * #insert(int)}, {@link #remove(int)} and {@link #isIn(int)} take constant expected time.
+ *
+ * <p>A typical HashIntSet is \( S = \{x_1, \ldots, x_n \} \).
+ */
+public class HashIntSet extends AbstractIntSet {
+
+  // Fields
+
+  /** The initial capacity of the internal table (must be a power of two). */
+  private static final int INITIAL_CAPACITY = 16;
+
+  /** The maximum ratio between the number of occupied slots and the table length. */
+  private static final float LOAD_FACTOR = 0.75f;
+
+  /** The value marking a free slot of the table. */
+  private static final int FREE = 0;
+
+  /** The hash table containing this set elements (but {@link #FREE}). */
+  private int[] table;
+
+  /** Whether {@link #FREE} belongs to this set. */
+  private boolean containsFree;
+
+  /** The number of occupied slots of {@link #table} that triggers a resize. */
+  private int maxFill;
+
+  /*
+   * RI:
+   *
+   * - table != null
+   * - table.length is a power of two
+   * - maxFill == (int) (table.length * LOAD_FACTOR) and maxFill < table.length
+   * - size == (number of i such that table[i] != FREE) + (containsFree ? 1 : 0)
+   * - for all 0 <= i != j < table.length, table[i] != FREE implies table[i] != table[j]
+   * - for all i such that table[i] != FREE, no slot between slot(table[i]) and i (cyclically)
+   *   is FREE
+   *
+   * AF:
+   *
+   *  - represents the set S = { table[i] : table[i] != FREE } ∪ ({ FREE } if containsFree)
+   *
+   */
+
+  // Constructors
+
+  /**
+   * Initializes this set to be empty.
+   *
+   * <p>Builds the set \( S = \varnothing \).
+   */
+  public HashIntSet() {
+    super();
+    table = new int[INITIAL_CAPACITY];
+    maxFill = (int) (INITIAL_CAPACITY * LOAD_FACTOR);
+    containsFree = false;
+  }
+
+  // Methods
+
+  /**
+   * Returns the slot where the search for the given element starts.
+   *
+   * @param x the element.
+   * @param length the length of the table, must be a power of two.
+   * @return the slot where {@code x} would be stored if there were no collisions.
+   */
+  private static int slot(int x, int length) {
+    final int h = x * 0x9E3779B9; // Fibonacci hashing, spreads clustered values
+    return (h ^ (h >>> 16)) & (length - 1);
+  }
+
+  /**
+   * Looks for a given element (different from {@link #FREE}) in the table.
+   *
+   * @param x the element to look for.
+   * @return the slot containing {@code x}, if it belongs to this set, or the free slot where it
+   *     should be inserted.
+   */
+  private int indexOf(int x) {
+    final int mask = table.length - 1;
+    int i = slot(x, table.length);
+    while (table[i] != FREE && table[i] != x) i = (i + 1) & mask;
+    return i;
+  }
+
+  /** Doubles the length of the table, reinserting every element. */
+  private void rehash() {
+    final int[] old = table;
+    table = new int[old.length * 2];
+    maxFill = (int) (table.length * LOAD_FACTOR);
+    for (int e : old) if (e != FREE) table[indexOf(e)] = e;
+  }
+
+  /**
+   * Empties the given slot and moves back the elements of its cluster, so that no lookup crosses
+   * a free slot before reaching the element it is looking for.
+   *
+   * @param i the slot to empty.
+   */
+  private void shiftBack(int i) {
+    final int mask = table.length - 1;
+    int j = i;
+    while (true) {
+      j = (j + 1) & mask;
+      final int e = table[j];
+      if (e == FREE) break;
+      final int k = slot(e, table.length);
+      // e can move to i only if its home slot k does not lie cyclically in (i, j]
+      if (i <= j ? (k <= i || k > j) : (k <= i && k > j)) {
+        table[i] = e;
+        i = j;
+      }
+    }
+    table[i] = FREE;
+  }
+
+  /**
+   * Adds the given element to this set.
+   *
+   * <p>This method modifies the object, that is: \( S' = S \cup \{ x \} \).
+   *
+   * @param x the element to be added.
+   */
+  @Override
+  public void insert(int x) {
+    if (x == FREE) {
+      if (!containsFree) {
+        containsFree = true;
+        size++;
+        hash += mix(x);
+      }
+      return;
+    }
+    final int i = indexOf(x);
+    if (table[i] == x) return;
+    table[i] = x;
+    size++;
+    hash += mix(x);
+    if (size - (containsFree ? 1 : 0) > maxFill) rehash();
+  }
+
+  /**
+   * Removes the given element from this set.
+   *
+   * <p>This method modifies the object, that is: \( S' = S \setminus \{ x \} \).
+   *
+   * @param x the element to be removed.
+   */
+  @Override
+  public void remove(int x) {
+    if (x == FREE) {
+      if (containsFree) {
+        containsFree = false;
+        size--;
+        hash -= mix(x);
+      }
+      return;
+    }
+    final int i = indexOf(x);
+    if (table[i] != x) return;
+    shiftBack(i);
+    size--;
+    hash -= mix(x);
+  }
+
+  /**
+   * Tells if the given element is in this set.
+   *
+   * <p>Answers the question \( x\in S \).
+   *
+   * @param x the element to look for.
+   * @return whether the given element belongs to this set, or not.
+   */
+  @Override
+  public boolean isIn(int x) {
+    if (x == FREE) return containsFree;
+    return table[indexOf(x)] == x;
+  }
+
+  /**
+   * Returns an element from this set.
+   *
+   * @return an arbitrary element from this set.
+   * @throws NoSuchElementException if this set is empty.
+   */
+  @Override
+  public int choose() throws NoSuchElementException {
+    if (size == 0) throw new NoSuchElementException("Can't choose from an empty set");
+    if (containsFree) return FREE;
+    for (int e : table) if (e != FREE) return e;
+    throw new AssertionError("RI violated: size > 0 but the table is empty");
+  }
+
+  @Override
+  protected boolean hasConstantTimeLookup() {
+    return true;
+  }
+
+  @Override
+  public void forEachInt(IntConsumer action) {
+    Objects.requireNonNull(action);
+    if (containsFree) action.accept(FREE);
+    for (int e : table) if (e != FREE) action.accept(e);
+  }
+
+  /**
+   * Returns a spliterator over the elements of this set that does not box them.
+   *
+   * <p>The spliterator splits the table in halves; since the number of elements in a range of
+   * slots is not known, only the spliterator over the whole table reports {@link
+   * Spliterator#SIZED}, while the size of the halves is estimated.
+   *
+   * @return a spliterator over the elements of this set.
+   */
+  @Override
+  public Spliterator.OfInt intSpliterator() {
+    return new TableSpliterator(table, 0, table.length, containsFree, size, true);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt intIterator() {
+    return new PrimitiveIterator.OfInt() {
+
+      /** The number of elements still to return. */
+      private int remaining = size;
+
+      /** The slot to start looking from for the next element to return. */
+      private int idx = containsFree ? -1 : 0;
+
+      /*
+       * RI: -1 <= idx <= table.length, idx == -1 only if containsFree
+       * AF: the next element to return is FREE if idx == -1, or else the first table[i] != FREE
+       *     with i >= idx, or none if remaining == 0
+       */
+
+      @Override
+      public boolean hasNext() {
+        return remaining > 0;
+      }
+
+      @Override
+      public int nextInt() {
+        if (!hasNext()) throw new NoSuchElementException();
+        remaining--;
+        if (idx == -1) {
+          idx = 0;
+          return FREE;
+        }
+        while (table[idx] == FREE) idx++;
+        return table[idx++];
+      }
+    };
+  }
+
+  /** A spliterator over the elements in a range of slots of a table. */
+  private static final class TableSpliterator implements Spliterator.OfInt {
+
+    /** The table. */
+    private final int[] table;
+
+    /** The next slot to look at. */
+    private int from;
+
+    /** The slot following the last one in the range. */
+    private final int to;
+
+    /** Whether {@link #FREE} is still to be returned. */
+    private boolean free;
+
+    /** The (estimated) number of elements still to return. */
+    private long estimate;
+
+    /** Whether {@link #estimate} is exact (that is, this spliterator has never been split). */
+    private boolean exact;
+
+    /*
+     * RI: 0 <= from <= to <= table.length, estimate >= 0
+     * AF: the elements to return are FREE if free, and the table[i] != FREE with from <= i < to
+     */
+
+    /**
+     * Creates a spliterator over the given range of slots.
+     *
+     * @param table the table.
+     * @param from the first slot of the range.
+     * @param to the slot following the last one in the range.
+     * @param free whether to return {@link #FREE} as well.
+     * @param estimate the (estimated) number of elements to return.
+     * @param exact whether {@code estimate} is exact.
+     */
+    TableSpliterator(int[] table, int from, int to, boolean free, long estimate, boolean exact) {
+      this.table = table;
+      this.from = from;
+      this.to = to;
+      this.free = free;
+      this.estimate = estimate;
+      this.exact = exact;
+    }
+
+    @Override
+    public boolean tryAdvance(IntConsumer action) {
+      Objects.requireNonNull(action);
+      if (free) {
+        free = false;
+        estimate--;
+        action.accept(FREE);
+        return true;
+      }
+      while (from < to) {
+        final int e = table[from++];
+        if (e != FREE) {
+          if (estimate > 0) estimate--;
+          action.accept(e);
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public void forEachRemaining(IntConsumer action) {
+      Objects.requireNonNull(action);
+      if (free) {
+        free = false;
+        action.accept(FREE);
+      }
+      for (int i = from; i < to; i++) if (table[i] != FREE) action.accept(table[i]);
+      from = to;
+      estimate = 0;
+    }
+
+    @Override
+    public Spliterator.OfInt trySplit() {
+      final int mid = (from + to) >>> 1;
+      if (mid - from < 2) return null;
+      final long half = estimate >>> 1;
+      final TableSpliterator prefix = new TableSpliterator(table, from, mid, free, half, false);
+      from = mid;
+      free = false;
+      estimate -= half;
+      exact = false;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return estimate;
+    }
+
+    @Override
+    public int characteristics() {
+      return Spliterator.DISTINCT | (exact ? Spliterator.SIZED : 0);
+    }
+  }
+}
@@ -23,26 +23,51 @@ package it.unimi.di.prog2.h17;
 
 import java.util.Scanner;
 
-/** A class to test {@link ArrayIntSet} and {@link ListIntSet}. */
+/**
+ * A class to test {@link ArrayIntSet}, {@link BitmapIntSet}, {@link ConcurrentIntSet}, {@link
+ * HashIntSet}, {@link ListIntSet} and {@link SortedArrayIntSet}.
+ */
 public class IntSetClient {
 
   /** . */
   private IntSetClient() {}
 
   /**
-   * Tests some methods of {@link ArrayIntSet} and {@link ListIntSet}.
+   * Tests some methods of {@link ArrayIntSet}, {@link BitmapIntSet}, {@link ConcurrentIntSet},
+   * {@link HashIntSet}, {@link ListIntSet} and {@link SortedArrayIntSet}.
    *
    * <p>This method reads integers from standard input and inserts them into a set, then it emits
-   * the set size and elements in the standard output. The first parameter determines the
-   * implementation to use: {@code a} for {@link ArrayIntSet}, anything else for {@link ListIntSet}.
+   * the set size and elements in the standard output. An integer preceded by {@code -} is removed
+   * from the set instead, while one preceded by {@code ?} is looked up, emitting whether it belongs
+   * to the set. The first parameter determines the implementation to use: {@code a} for {@link
+   * ArrayIntSet}, {@code b} for {@link BitmapIntSet}, {@code c} for {@link ConcurrentIntSet},
+   * {@code h} for {@link HashIntSet}, {@code s} for {@link SortedArrayIntSet}, anything else for
+   * {@link ListIntSet}.
    *
-   * @param args if the set should be ordered.
+   * @param args the letter selecting the implementation of the set, as described above.
    */
   public static void main(String[] args) {
     final char impl = args.length > 0 && args[0].length() == 1 ? args[0].charAt(0) : 'l';
-    AbstractIntSet set = impl == 'a' ? new ArrayIntSet() : new ListIntSet();
+    AbstractIntSet set =
+        switch (impl) {
+          case 'a' -> new ArrayIntSet();
+          case 'b' -> new BitmapIntSet();
+          case 'c' -> new ConcurrentIntSet();
+          case 'h' -> new HashIntSet();
+          case 's' -> new SortedArrayIntSet();
+          default -> new ListIntSet();
+        };
     try (Scanner sc = new Scanner(System.in)) {
-      while (sc.hasNextInt()) set.insert(sc.nextInt());
+      while (sc.hasNext()) {
+        if (sc.hasNextInt()) {
+          set.insert(sc.nextInt());
+          continue;
+        }
+        final String command = sc.next();
+        final int x = sc.nextInt();
+        if (command.equals("-")) set.remove(x);
+        else System.out.println(set.isIn(x));
+      }
     }
     System.out.println("Size: " + set.size());
     if (set.size() > 0) {
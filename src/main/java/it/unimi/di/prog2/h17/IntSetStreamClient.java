@@ -0,0 +1,126 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h17;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Scanner;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+
+/** A class to test the streams of {@link AbstractIntSet}. */
+public class IntSetStreamClient {
+
+  /** The maximum depth of the recursive splits. */
+  private static final int SPLIT_DEPTH = 6;
+
+  /** . */
+  private IntSetStreamClient() {}
+
+  /**
+   * Splits recursively a spliterator, collecting the resulting pieces in order.
+   *
+   * @param spliterator the spliterator.
+   * @param depth the maximum depth of the splits.
+   * @param pieces the list where to append the pieces.
+   */
+  private static void split(
+      Spliterator.OfInt spliterator, int depth, List<Spliterator.OfInt> pieces) {
+    final Spliterator.OfInt prefix = depth > 0 ? spliterator.trySplit() : null;
+    if (prefix == null) {
+      pieces.add(spliterator);
+      return;
+    }
+    split(prefix, depth - 1, pieces);
+    split(spliterator, depth - 1, pieces);
+  }
+
+  /**
+   * Tests {@link AbstractIntSet#intStream()} and {@link AbstractIntSet#parallelIntStream()}.
+   *
+   * <p>This method reads integers from standard input and inserts them into a set, then it emits
+   * in the standard output the sum of the elements, the number of even ones and the maximum
+   * (computed by a parallel stream), whether a sequential stream gives the same results, the number
+   * of non empty pieces obtained by splitting recursively the spliterator of the set (up to {@link
+   * #SPLIT_DEPTH} times), whether such pieces agree with the set, and the elements in increasing
+   * order. The first parameter determines the implementation to use, as in
+   * {@link IntSetClient}, or {@code f} for the {@link FrozenIntSet} of an {@link ArrayIntSet}.
+   *
+   * @param args the implementation to use.
+   */
+  public static void main(String[] args) {
+    final char impl = args.length > 0 && args[0].length() == 1 ? args[0].charAt(0) : 'l';
+    AbstractIntSet set =
+        switch (impl) {
+          case 'a', 'f' -> new ArrayIntSet();
+          case 'b' -> new BitmapIntSet();
+          case 'c' -> new ConcurrentIntSet();
+          case 'h' -> new HashIntSet();
+          case 's' -> new SortedArrayIntSet();
+          default -> new ListIntSet();
+        };
+    try (Scanner sc = new Scanner(System.in)) {
+      while (sc.hasNextInt()) set.insert(sc.nextInt());
+    }
+    if (impl == 'f') set = set.freeze();
+    final long sum = set.parallelIntStream().asLongStream().sum();
+    final long even = set.parallelIntStream().filter(x -> x % 2 == 0).count();
+    final OptionalInt max = set.parallelIntStream().max();
+    System.out.println("Sum: " + sum);
+    System.out.println("Even: " + even);
+    System.out.println("Max: " + (max.isPresent() ? max.getAsInt() : "none"));
+    System.out.println(
+        "Sequential agrees: "
+            + (set.intStream().asLongStream().sum() == sum
+                && set.intStream().filter(x -> x % 2 == 0).count() == even
+                && set.intStream().max().equals(max)));
+    final List<Spliterator.OfInt> pieces = new ArrayList<>();
+    split(set.intSpliterator(), SPLIT_DEPTH, pieces);
+    final IntStream.Builder concatenation = IntStream.builder();
+    boolean sized = true;
+    int nonEmpty = 0;
+    for (Spliterator.OfInt piece : pieces) {
+      final long expected = piece.getExactSizeIfKnown();
+      final long[] count = {0};
+      piece.forEachRemaining(
+          (int x) -> {
+            concatenation.add(x);
+            count[0]++;
+          });
+      if (expected != -1 && expected != count[0]) sized = false;
+      if (count[0] > 0) nonEmpty++;
+    }
+    final boolean ordered = set.intSpliterator().hasCharacteristics(Spliterator.ORDERED);
+    final int[] concatenated = concatenation.build().toArray();
+    final int[] elements = set.intStream().toArray();
+    if (!ordered) {
+      Arrays.sort(concatenated);
+      Arrays.sort(elements);
+    }
+    System.out.println("Pieces: " + nonEmpty);
+    System.out.println("Pieces agree: " + (sized && Arrays.equals(concatenated, elements)));
+    System.out.println("Sorted:");
+    set.parallelIntStream().sorted().forEachOrdered(System.out::println);
+  }
+}
@@ -22,10 +22,12 @@ along with this file.  If not, see <https://www.gnu.org/licenses/>.
 package it.unimi.di.prog2.h17;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
 
 /**
  * {@code ListIntSet}s are mutable, unbounded sets of integers.
@@ -88,6 +90,7 @@ public class ListIntSet extends AbstractIntSet {
     if (getIndex(x) < 0) {
       els.add(x);
       size++;
+      hash += mix(x);
     }
   }
 
@@ -105,6 +108,7 @@ public class ListIntSet extends AbstractIntSet {
     els.set(i, els.get(last));
     els.remove(last);
     size--;
+    hash -= mix(x);
   }
 
   /**
@@ -119,7 +123,27 @@ public class ListIntSet extends AbstractIntSet {
   }
 
   @Override
-  public Iterator<Integer> iterator() {
-    return Collections.unmodifiableCollection(els).iterator();
+  public void forEachInt(IntConsumer action) {
+    Objects.requireNonNull(action);
+    for (int i = 0; i < els.size(); i++) action.accept(els.get(i));
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt intIterator() {
+    return new PrimitiveIterator.OfInt() {
+
+      /** The iterator over the (already boxed) elements of the list. */
+      private final Iterator<Integer> it = els.iterator();
+
+      @Override
+      public boolean hasNext() {
+        return it.hasNext();
+      }
+
+      @Override
+      public int nextInt() {
+        return it.next(); // unboxing an element of els does not allocate
+      }
+    };
   }
 }
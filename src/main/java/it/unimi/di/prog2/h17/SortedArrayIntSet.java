@@ -0,0 +1,333 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h17;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+
+/**
+ * {@code SortedArrayIntSet}s are mutable, unbounded sets of integers whose elements are kept in
+ * increasing order.
+ *
+ * <p>Differently from {@link ArrayIntSet}, the elements are stored sorted, so that {@link
+ * #isIn(int)}, {@link #floor(int)}, {@link #ceiling(int)} and {@link #rank(int)} take a binary
+ * search, and the elements can be enumerated in order, also within a range. Inserting or removing
+ * a single element shifts the greater ones, hence many elements are better added at once by {@link
+ * #addAll(int[])}.
+ *
+ * <p>A typical SortedArrayIntSet is \( S = \{x_1, \ldots, x_n \} \), with \( x_1 < \cdots < x_n
+ * \).
+ */
+public class SortedArrayIntSet extends AbstractIntSet {
+
+  // Fields
+
+  /** The initial capacity of the internal array. */
+  private static final int INITIAL_CAPACITY = 16;
+
+  /** The array containing this set elements, in increasing order. */
+  private int[] els;
+
+  /*
+   * RI:
+   *
+   * - els != null
+   * - els.length >= size
+   * - size >= 0
+   * - for all 0 <= i < size - 1, els[i] < els[i + 1]
+   *
+   * AF:
+   *
+   *  - represents the set S = { els[0], els[1], ..., els[size-1] }
+   *
+   */
+
+  // Constructors
+
+  /**
+   * Initializes this set to be empty.
+   *
+   * <p>Builds the set \( S = \varnothing \).
+   */
+  public SortedArrayIntSet() {
+    super();
+    els = new int[INITIAL_CAPACITY];
+  }
+
+  // Methods
+
+  /**
+   * Looks for a given element in this set.
+   *
+   * @param x the element to look for.
+   * @return the index of {@code x}, if it belongs to this set, or {@code -(insertion point) - 1}.
+   */
+  private int indexOf(int x) {
+    return Arrays.binarySearch(els, 0, size, x);
+  }
+
+  /**
+   * Makes sure that the given number of elements can be stored without reallocations.
+   *
+   * @param capacity the required capacity.
+   */
+  private void ensureCapacity(int capacity) {
+    if (capacity > els.length) els = Arrays.copyOf(els, Math.max(capacity, els.length * 2));
+  }
+
+  /**
+   * Adds the given element to this set.
+   *
+   * <p>This method modifies the object, that is: \( S' = S \cup \{ x \} \).
+   *
+   * @param x the element to be added.
+   */
+  @Override
+  public void insert(int x) {
+    int i = indexOf(x);
+    if (i >= 0) return;
+    i = -i - 1;
+    ensureCapacity(size + 1);
+    System.arraycopy(els, i, els, i + 1, size - i);
+    els[i] = x;
+    size++;
+    hash += mix(x);
+  }
+
+  /**
+   * Adds the given elements to this set.
+   *
+   * <p>This method modifies the object, that is: \( S' = S \cup \{ x_1, \ldots, x_k \} \).
+   *
+   * <p>The elements are sorted once, and then merged with those of this set (from the greatest
+   * down, in the free space at the end of the array), in time \( O(k \log k + n) \).
+   *
+   * @param xs the elements to be added, must not be {@code null}.
+   * @throws NullPointerException if {@code xs} is {@code null}.
+   */
+  public void addAll(int[] xs) {
+    final int[] sorted = Objects.requireNonNull(xs).clone();
+    Arrays.sort(sorted);
+    ensureCapacity(size + sorted.length);
+    int i = size - 1, j = sorted.length - 1, k = size + sorted.length - 1;
+    while (j >= 0) {
+      final int x = sorted[j--];
+      if (j >= 0 && sorted[j] == x) continue; // a duplicate in xs
+      while (i >= 0 && els[i] > x) els[k--] = els[i--];
+      if (i >= 0 && els[i] == x) continue; // already in this set
+      els[k--] = x;
+      size++;
+      hash += mix(x);
+    }
+    // els[0..i] are untouched, the merged elements follow from k + 1
+    System.arraycopy(els, k + 1, els, i + 1, size - i - 1);
+  }
+
+  /**
+   * Removes the given element from this set.
+   *
+   * <p>This method modifies the object, that is: \( S' = S \setminus \{ x \} \).
+   *
+   * @param x the element to be removed.
+   */
+  @Override
+  public void remove(int x) {
+    final int i = indexOf(x);
+    if (i < 0) return;
+    System.arraycopy(els, i + 1, els, i, size - i - 1);
+    size--;
+    hash -= mix(x);
+  }
+
+  /**
+   * Tells if the given element is in this set.
+   *
+   * <p>Answers the question \( x\in S \).
+   *
+   * @param x the element to look for.
+   * @return whether the given element belongs to this set, or not.
+   */
+  @Override
+  public boolean isIn(int x) {
+    return indexOf(x) >= 0;
+  }
+
+  /**
+   * Returns an element from this set.
+   *
+   * @return the minimum element of this set.
+   * @throws NoSuchElementException if this set is empty.
+   */
+  @Override
+  public int choose() throws NoSuchElementException {
+    if (size == 0) throw new NoSuchElementException("Can't choose from an empty set");
+    return els[0];
+  }
+
+  /**
+   * Returns the number of elements of this set less than the given value.
+   *
+   * @param x the value.
+   * @return \( |\{ y \in S : y < x \}| \).
+   */
+  public int rank(int x) {
+    final int i = indexOf(x);
+    return i >= 0 ? i : -i - 1;
+  }
+
+  /**
+   * Returns the greatest element of this set less than or equal to the given value.
+   *
+   * @param x the value.
+   * @return \( \max \{ y \in S : y \leq x \} \).
+   * @throws NoSuchElementException if every element of this set is greater than {@code x}.
+   */
+  public int floor(int x) throws NoSuchElementException {
+    final int i = indexOf(x);
+    if (i >= 0) return els[i];
+    if (i == -1) throw new NoSuchElementException("No element is less than or equal to " + x);
+    return els[-i - 2];
+  }
+
+  /**
+   * Returns the least element of this set greater than or equal to the given value.
+   *
+   * @param x the value.
+   * @return \( \min \{ y \in S : y \geq x \} \).
+   * @throws NoSuchElementException if every element of this set is less than {@code x}.
+   */
+  public int ceiling(int x) throws NoSuchElementException {
+    int i = indexOf(x);
+    if (i >= 0) return els[i];
+    i = -i - 1;
+    if (i == size) throw new NoSuchElementException("No element is greater than or equal to " + x);
+    return els[i];
+  }
+
+  /**
+   * Returns the intersection of this set and the given one.
+   *
+   * <p>Computes \( S \cap T \) leaving both operands unchanged. Every element of the smaller set is
+   * looked for in the larger one by <em>galloping</em> (an exponential search, starting from where
+   * the previous search ended, followed by a binary search), in time \( O(m \log(n/m)) \), where
+   * \( m \leq n \) are the sizes of the sets.
+   *
+   * @param other the other set, must not be {@code null}.
+   * @return a new set containing the elements belonging to both this and the other set.
+   * @throws NullPointerException if {@code other} is {@code null}.
+   */
+  public SortedArrayIntSet intersect(SortedArrayIntSet other) {
+    Objects.requireNonNull(other);
+    final SortedArrayIntSet small = size <= other.size ? this : other;
+    final SortedArrayIntSet large = small == this ? other : this;
+    final SortedArrayIntSet result = new SortedArrayIntSet();
+    result.ensureCapacity(small.size);
+    int lo = 0; // the elements of large before lo are less than those still to look for
+    for (int i = 0; i < small.size && lo < large.size; i++) {
+      final int x = small.els[i];
+      int step = 1, hi = lo;
+      while (hi < large.size && large.els[hi] < x) {
+        lo = hi + 1;
+        hi += step;
+        step <<= 1;
+      }
+      final int j = Arrays.binarySearch(large.els, lo, Math.min(hi + 1, large.size), x);
+      if (j >= 0) {
+        result.els[result.size++] = x;
+        result.hash += mix(x);
+        lo = j + 1;
+      } else lo = -j - 1;
+    }
+    return result;
+  }
+
+  /**
+   * Returns an iterator over the elements of this set in the given range, in increasing order.
+   *
+   * <p>The iterator must not be used after this set has been modified.
+   *
+   * @param from the lower bound of the range (inclusive).
+   * @param to the upper bound of the range (exclusive).
+   * @return an iterator over \( \{ y \in S : \mathit{from} \leq y < \mathit{to} \} \).
+   */
+  public PrimitiveIterator.OfInt rangeIterator(int from, int to) {
+    return iterator(rank(from), from < to ? rank(to) : rank(from));
+  }
+
+  /**
+   * Returns an iterator over a slice of the elements of this set.
+   *
+   * @param from the index of the first element to return.
+   * @param to the index after the last element to return.
+   * @return an iterator over {@code els[from..to)}.
+   */
+  private PrimitiveIterator.OfInt iterator(int from, int to) {
+    return new PrimitiveIterator.OfInt() {
+
+      /** The index of the next element to return. */
+      private int idx = from;
+
+      /*
+       * RI: from <= idx <= to <= size
+       * AF: the next element to return is els[idx], or none if idx == to
+       */
+
+      @Override
+      public boolean hasNext() {
+        return idx < to;
+      }
+
+      @Override
+      public int nextInt() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return els[idx++];
+      }
+    };
+  }
+
+  @Override
+  protected boolean iteratesInOrder() {
+    return true;
+  }
+
+  @Override
+  public void forEachInt(IntConsumer action) {
+    Objects.requireNonNull(action);
+    for (int i = 0; i < size; i++) action.accept(els[i]);
+  }
+
+  @Override
+  public Spliterator.OfInt intSpliterator() {
+    return Spliterators.spliterator(
+        els, 0, size, Spliterator.DISTINCT | Spliterator.ORDERED | Spliterator.SORTED);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt intIterator() {
+    return iterator(0, size);
+  }
+}
@@ -0,0 +1,101 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h17;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Scanner;
+
+/** A class to test the ordered queries of {@link SortedArrayIntSet}. */
+public class SortedArrayIntSetClient {
+
+  /** . */
+  private SortedArrayIntSetClient() {}
+
+  /**
+   * Tests the range queries and the intersection of {@link SortedArrayIntSet}.
+   *
+   * <p>This method reads integers from standard input and adds them all at once to a set, then it
+   * emits in the standard output the set size, the elements in the range \( [from, to) \), the
+   * floor and ceiling of both bounds (or {@code none}), the rank of {@code to} and the elements of
+   * the set that are multiples of 3 in the range, computed as an intersection.
+   *
+   * @param args the bounds {@code from} and {@code to} of the range.
+   */
+  public static void main(String[] args) {
+    final int from = Integer.parseInt(args[0]), to = Integer.parseInt(args[1]);
+    int[] input = new int[16];
+    int n = 0;
+    try (Scanner sc = new Scanner(System.in)) {
+      while (sc.hasNextInt()) {
+        if (n == input.length) input = Arrays.copyOf(input, 2 * n);
+        input[n++] = sc.nextInt();
+      }
+    }
+    final SortedArrayIntSet set = new SortedArrayIntSet();
+    set.addAll(Arrays.copyOf(input, n));
+    System.out.println("Size: " + set.size());
+    System.out.println("Range:");
+    for (PrimitiveIterator.OfInt it = set.rangeIterator(from, to); it.hasNext(); )
+      System.out.println(it.nextInt());
+    for (int x : new int[] {from, to}) {
+      System.out.println("Floor of " + x + ": " + floor(set, x));
+      System.out.println("Ceiling of " + x + ": " + ceiling(set, x));
+    }
+    System.out.println("Rank of " + to + ": " + set.rank(to));
+    final SortedArrayIntSet multiples = new SortedArrayIntSet();
+    for (int x = from; x < to; x++) if (x % 3 == 0) multiples.insert(x);
+    System.out.println("Multiples of 3:");
+    for (int x : set.intersect(multiples)) System.out.println(x);
+  }
+
+  /**
+   * Returns the floor of a value in a set, as a string.
+   *
+   * @param set the set.
+   * @param x the value.
+   * @return the floor, or {@code none} if there is none.
+   */
+  private static String floor(SortedArrayIntSet set, int x) {
+    try {
+      return Integer.toString(set.floor(x));
+    } catch (NoSuchElementException e) {
+      return "none";
+    }
+  }
+
+  /**
+   * Returns the ceiling of a value in a set, as a string.
+   *
+   * @param set the set.
+   * @param x the value.
+   * @return the ceiling, or {@code none} if there is none.
+   */
+  private static String ceiling(SortedArrayIntSet set, int x) {
+    try {
+      return Integer.toString(set.ceiling(x));
+    } catch (NoSuchElementException e) {
+      return "none";
+    }
+  }
+}
@@ -21,7 +21,9 @@ along with this file.  If not, see <https://www.gnu.org/licenses/>.
 
 package it.unimi.di.prog2.s12;
 
+import java.util.Arrays;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 
 /**
  * A <em>queue</em> is a mutable data structure that provides access to its elements in
@@ -131,42 +133,103 @@ public class BoundedIntQueue {
     return r;
   }
 
+  /**
+   * Adds the given elements to the queue, in order.
+   *
+   * <p>The elements are copied with at most two {@link System#arraycopy} calls.
+   *
+   * @param src the array containing the elements to add.
+   * @param off the position in {@code src} of the first element to add.
+   * @param len the number of elements to add.
+   * @throws NullPointerException if {@code src} is {@code null}.
+   * @throws IndexOutOfBoundsException if {@code off} and {@code len} are not valid for {@code src}.
+   * @throws IllegalStateException if the queue has room for less than {@code len} elements (in
+   *     which case no element is added).
+   */
+  public void enqueueAll(int[] src, int off, int len) {
+    Objects.checkFromIndexSize(off, len, Objects.requireNonNull(src).length);
+    if (len > elements.length - size()) throw new IllegalStateException("the queue is full");
+    if (len == 0) return;
+    if (head == -1) head = 0;
+    final int first = Math.min(len, elements.length - tail);
+    System.arraycopy(src, off, elements, tail, first);
+    System.arraycopy(src, off + first, elements, 0, len - first);
+    tail = (tail + len) % elements.length;
+  }
+
+  /**
+   * Removes the given number of elements from the head of the queue, copying them in order.
+   *
+   * <p>The elements are copied with at most two {@link System#arraycopy} calls.
+   *
+   * @param dst the array where to copy the removed elements.
+   * @param off the position in {@code dst} of the first removed element.
+   * @param len the number of elements to remove.
+   * @throws NullPointerException if {@code dst} is {@code null}.
+   * @throws IndexOutOfBoundsException if {@code off} and {@code len} are not valid for {@code dst}.
+   * @throws NoSuchElementException if the queue contains less than {@code len} elements (in which
+   *     case no element is removed).
+   */
+  public void dequeueInto(int[] dst, int off, int len) {
+    Objects.checkFromIndexSize(off, len, Objects.requireNonNull(dst).length);
+    if (len > size())
+      throw new NoSuchElementException("the queue does not contain enough elements");
+    if (len == 0) return;
+    final int first = Math.min(len, elements.length - head);
+    System.arraycopy(elements, head, dst, off, first);
+    System.arraycopy(elements, 0, dst, off + first, len - first);
+    head = (head + len) % elements.length;
+    if (head == tail) {
+      head = -1;
+      tail = 0;
+    }
+  }
+
+  /**
+   * Returns the length of the first contiguous segment of {@link #elements} holding the queue.
+   *
+   * <p>The queue elements are those in {@code elements[head, head + first)} followed by those in
+   * {@code elements[0, size() - first)}.
+   *
+   * @return the number of queue elements stored from {@code head} on, without wrapping around.
+   */
+  private int firstSegmentLength() {
+    return isEmpty() ? 0 : Math.min(size(), elements.length - head);
+  }
+
   @Override
   public String toString() {
-    if (isEmpty()) return "BoundedIntQueue: []";
     final StringBuilder sb = new StringBuilder("BoundedIntQueue: [");
-    int i = head, n = 0;
-    while (n < size() - 1) {
-      sb.append(elements[i] + ", ");
-      i = (i + 1) % elements.length;
-      n += 1;
-    }
-    sb.append(elements[i] + "]");
-    return sb.toString();
+    final int first = firstSegmentLength(), size = size();
+    for (int i = 0; i < first; i++) sb.append(elements[head + i]).append(", ");
+    for (int i = 0; i < size - first; i++) sb.append(elements[i]).append(", ");
+    if (size > 0) sb.setLength(sb.length() - 2);
+    return sb.append("]").toString();
   }
 
   @Override
   public int hashCode() {
     int result = 0;
-    int i = head, n = 0;
-    while (n < size()) {
-      result = 31 * result + Integer.hashCode(elements[i]);
-      i = (i + 1) % elements.length;
-      n += 1;
-    }
+    final int first = firstSegmentLength(), size = size();
+    for (int i = 0; i < first; i++) result = 31 * result + Integer.hashCode(elements[head + i]);
+    for (int i = 0; i < size - first; i++) result = 31 * result + Integer.hashCode(elements[i]);
     return result;
   }
 
   @Override
   public boolean equals(Object obj) {
     if (!(obj instanceof BoundedIntQueue other)) return false;
-    if (size() != other.size()) return false;
-    int i = head, j = other.head, n = 0;
-    while (n < size()) {
-      if (elements[i] != other.elements[j]) return false;
-      i = (i + 1) % elements.length;
-      j = (j + 1) % other.elements.length;
-      n += 1;
+    final int size = size();
+    if (size != other.size()) return false;
+    // compares the pieces where neither queue wraps around (at most three)
+    int i = head, j = other.head, done = 0;
+    while (done < size) {
+      final int n =
+          Math.min(size - done, Math.min(elements.length - i, other.elements.length - j));
+      if (!Arrays.equals(elements, i, i + n, other.elements, j, j + n)) return false;
+      done += n;
+      i = (i + n) % elements.length;
+      j = (j + n) % other.elements.length;
     }
     return true;
   }
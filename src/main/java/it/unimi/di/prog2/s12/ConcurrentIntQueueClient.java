@@ -0,0 +1,125 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.s12;
+
+import java.util.Arrays;
+import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** A class to exercise {@link SpscIntQueue} and {@link MpmcIntQueue}. */
+public class ConcurrentIntQueueClient {
+
+  /** . */
+  private ConcurrentIntQueueClient() {}
+
+  /**
+   * Tests the hand off of integers among threads.
+   *
+   * <p>Reads a list of integers from the standard input; some producer threads offer their
+   * positions to a queue (of capacity 4, unless the second parameter tells otherwise), while as
+   * many consumer threads take them, either draining at most 3 of them at a time or, if the fourth
+   * parameter is {@code poll}, polling them one by one. The first parameter determines the queue to
+   * use: {@code mpmc} for {@link MpmcIntQueue}, anything else for {@link SpscIntQueue}; the third
+   * one the number of producers (and of consumers), that is always 1 for {@link SpscIntQueue}. The
+   * producer of index \( p \) offers the positions congruent to \( p \) modulo the number of
+   * producers, in increasing order.
+   *
+   * <p>If every position is taken exactly once, the integers are emitted on the standard output,
+   * in the order they were read; then their number, the capacity of the queue and whether every
+   * consumer took the positions offered by each producer in increasing order are emitted.
+   *
+   * @param args the queue to use, and optionally its capacity, the number of threads and {@code
+   *     poll}.
+   */
+  public static void main(String[] args) {
+    final boolean mpmc = args.length > 0 && args[0].equals("mpmc");
+    final int capacity = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+    final int threads = mpmc && args.length > 2 ? Integer.parseInt(args[2]) : 1;
+    final boolean poll = args.length > 3 && args[3].equals("poll");
+    int[] input = new int[16];
+    int n = 0;
+    try (Scanner s = new Scanner(System.in)) {
+      while (s.hasNextInt()) {
+        if (n == input.length) input = Arrays.copyOf(input, 2 * n);
+        input[n++] = s.nextInt();
+      }
+    }
+    final SpscIntQueue spsc = mpmc ? null : new SpscIntQueue(capacity);
+    final MpmcIntQueue queue = mpmc ? new MpmcIntQueue(capacity) : null;
+    final int total = n;
+    final AtomicInteger received = new AtomicInteger();
+    final int[][] taken = new int[threads][total]; // the positions taken by each consumer
+    final int[] count = new int[threads];
+    final Thread[] workers = new Thread[2 * threads];
+    for (int t = 0; t < threads; t++) {
+      final int index = t;
+      workers[t] =
+          new Thread(
+              () -> {
+                for (int i = index; i < total; i += threads)
+                  while (!(mpmc ? queue.offer(i) : spsc.offer(i))) Thread.yield();
+              });
+      workers[threads + t] =
+          new Thread(
+              () -> {
+                final int[] batch = new int[poll ? 1 : 3];
+                while (received.get() < total) {
+                  final int k;
+                  if (poll) k = (mpmc ? queue.poll(batch) : spsc.poll(batch)) ? 1 : 0;
+                  else k = mpmc ? queue.drainTo(batch) : spsc.drainTo(batch);
+                  if (k == 0) Thread.yield();
+                  for (int i = 0; i < k; i++) taken[index][count[index]++] = batch[i];
+                  received.addAndGet(k);
+                }
+              });
+    }
+    for (Thread worker : workers) worker.start();
+    try {
+      for (Thread worker : workers) worker.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    final int[] times = new int[total];
+    boolean inOrder = true;
+    for (int t = 0; t < threads; t++) {
+      final int[] last = new int[threads];
+      Arrays.fill(last, -1);
+      for (int k = 0; k < count[t]; k++) {
+        final int i = taken[t][k];
+        times[i]++;
+        if (i <= last[i % threads]) inOrder = false;
+        last[i % threads] = i;
+      }
+    }
+    for (int i = 0; i < total; i++) {
+      if (times[i] != 1) {
+        System.out.println("Position " + i + " taken " + times[i] + " times");
+        return;
+      }
+    }
+    for (int i = 0; i < total; i++) System.out.println(input[i]);
+    System.out.println("Total: " + received);
+    System.out.println("Capacity: " + (mpmc ? queue.capacity() : spsc.capacity()));
+    System.out.println("In order: " + inOrder);
+  }
+}
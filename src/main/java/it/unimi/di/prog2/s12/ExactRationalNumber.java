@@ -0,0 +1,337 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.s12;
+
+import java.math.BigInteger;
+import java.util.Objects;
+
+/**
+ * An exact rational number is an immutable number that can be expressed as the quotient or fraction
+ * \( p/q \) of two integers of arbitrary size, a numerator \( p \) and a non-zero denominator \( q
+ * \).
+ *
+ * <p>Differently from {@link RationalNumber}, operations never overflow: as long as the terms fit
+ * in a {@code long} they are computed with {@code long} arithmetic, cross-cancelling common factors
+ * before multiplying (to delay overflow) and reducing with the binary GCD; only when a result does
+ * not fit, the computation is repeated with {@link BigInteger}s.
+ */
+public class ExactRationalNumber {
+
+  /** The zero rational number. */
+  public static final ExactRationalNumber ZERO = new ExactRationalNumber(0, 1, null, null);
+
+  /** The numerator, if it fits in a {@code long}. */
+  private final long num;
+
+  /** The denominator, if it fits in a {@code long}. */
+  private final long den;
+
+  /** The numerator, if it does not fit in a {@code long}, or {@code null}. */
+  private final BigInteger bigNum;
+
+  /** The denominator, if it does not fit in a {@code long}, or {@code null}. */
+  private final BigInteger bigDen;
+
+  /*-
+   * AF:
+   *
+   *   AF(num, den, bigNum, bigDen) = num/den if bigNum == null, bigNum/bigDen otherwise
+   *
+   * RI:
+   *
+   *  - bigNum == null iff bigDen == null
+   *  - if bigNum == null: den > 0, num != Long.MIN_VALUE and gcd(|num|, den) == 1
+   *  - if bigNum != null: bigDen > 0, gcd(bigNum, bigDen) == 1 and at least one of them is not in
+   *    (Long.MIN_VALUE, Long.MAX_VALUE] (hence every value has exactly one representation)
+   *
+   */
+
+  /**
+   * Creates a rational number from its representation (used by the factories).
+   *
+   * @param num the numerator.
+   * @param den the denominator.
+   * @param bigNum the big numerator.
+   * @param bigDen the big denominator.
+   */
+  private ExactRationalNumber(long num, long den, BigInteger bigNum, BigInteger bigDen) {
+    this.num = num;
+    this.den = den;
+    this.bigNum = bigNum;
+    this.bigDen = bigDen;
+  }
+
+  /**
+   * Creates a new rational number.
+   *
+   * <p>The rational number is reduced to minimum terms.
+   *
+   * @param numerator the numerator.
+   * @param denominator the denominator.
+   * @throws IllegalArgumentException if {@code denominator} is zero.
+   */
+  public ExactRationalNumber(long numerator, long denominator) {
+    if (denominator == 0) throw new IllegalArgumentException("denominator cannot be zero");
+    if (numerator != Long.MIN_VALUE && denominator != Long.MIN_VALUE) {
+      if (denominator < 0) {
+        numerator = -numerator;
+        denominator = -denominator;
+      }
+      final long gcd = gcd(Math.abs(numerator), denominator);
+      this.num = numerator / gcd;
+      this.den = denominator / gcd;
+      this.bigNum = null;
+      this.bigDen = null;
+    } else { // the absolute value does not fit in a long
+      final BigInteger[] reduced =
+          reduce(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+      final boolean small = fitsLong(reduced[0]) && fitsLong(reduced[1]);
+      this.num = small ? reduced[0].longValue() : 0;
+      this.den = small ? reduced[1].longValue() : 1;
+      this.bigNum = small ? null : reduced[0];
+      this.bigDen = small ? null : reduced[1];
+    }
+  }
+
+  /**
+   * Creates a new integer number.
+   *
+   * @param value the value.
+   */
+  public ExactRationalNumber(long value) {
+    this(value, 1);
+  }
+
+  /**
+   * Creates a new rational number.
+   *
+   * <p>The rational number is reduced to minimum terms.
+   *
+   * @param numerator the numerator, must not be {@code null}.
+   * @param denominator the denominator, must not be {@code null}.
+   * @throws NullPointerException if {@code numerator} or {@code denominator} are {@code null}.
+   * @throws IllegalArgumentException if {@code denominator} is zero.
+   */
+  public ExactRationalNumber(BigInteger numerator, BigInteger denominator) {
+    if (Objects.requireNonNull(denominator).signum() == 0)
+      throw new IllegalArgumentException("denominator cannot be zero");
+    final BigInteger[] reduced = reduce(Objects.requireNonNull(numerator), denominator);
+    final boolean small = fitsLong(reduced[0]) && fitsLong(reduced[1]);
+    this.num = small ? reduced[0].longValue() : 0;
+    this.den = small ? reduced[1].longValue() : 1;
+    this.bigNum = small ? null : reduced[0];
+    this.bigDen = small ? null : reduced[1];
+  }
+
+  /**
+   * Reduces a fraction to minimum terms, with a positive denominator.
+   *
+   * @param numerator the numerator.
+   * @param denominator the denominator, must not be zero.
+   * @return the reduced numerator and denominator.
+   */
+  private static BigInteger[] reduce(BigInteger numerator, BigInteger denominator) {
+    if (denominator.signum() < 0) {
+      numerator = numerator.negate();
+      denominator = denominator.negate();
+    }
+    final BigInteger gcd = numerator.gcd(denominator);
+    return new BigInteger[] {numerator.divide(gcd), denominator.divide(gcd)};
+  }
+
+  /**
+   * Tells whether a big integer can be stored in the {@code long} representation.
+   *
+   * @param x the integer.
+   * @return {@code true} iff {@code x} is in {@code (Long.MIN_VALUE, Long.MAX_VALUE]}.
+   */
+  private static boolean fitsLong(BigInteger x) {
+    return x.bitLength() < 64 && x.longValue() != Long.MIN_VALUE;
+  }
+
+  /**
+   * Computes the greatest common divisor of two non negative numbers with the binary (Stein)
+   * algorithm, that uses only shifts and subtractions.
+   *
+   * @param a the first number, must be non negative.
+   * @param b the second number, must be non negative.
+   * @return the greatest common divisor of {@code a} and {@code b} (that is {@code a + b} if one of
+   *     them is zero).
+   */
+  static long gcd(long a, long b) {
+    if (a == 0 || b == 0) return a + b;
+    final int shift = Long.numberOfTrailingZeros(a | b);
+    a >>= Long.numberOfTrailingZeros(a);
+    do {
+      b >>= Long.numberOfTrailingZeros(b);
+      if (a > b) {
+        final long t = a;
+        a = b;
+        b = t;
+      }
+      b -= a;
+    } while (b != 0);
+    return a << shift;
+  }
+
+  /**
+   * Returns the numerator.
+   *
+   * @return the numerator of this rational number, reduced to minimum terms.
+   */
+  public BigInteger numerator() {
+    return bigNum != null ? bigNum : BigInteger.valueOf(num);
+  }
+
+  /**
+   * Returns the denominator.
+   *
+   * @return the (positive) denominator of this rational number, reduced to minimum terms.
+   */
+  public BigInteger denominator() {
+    return bigDen != null ? bigDen : BigInteger.valueOf(den);
+  }
+
+  /**
+   * Tells whether this rational number is stored in the {@code long} representation.
+   *
+   * @return {@code true} iff {@link #smallNumerator()} and {@link #smallDenominator()} are its
+   *     terms.
+   */
+  boolean isSmall() {
+    return bigNum == null;
+  }
+
+  /**
+   * Returns the numerator, if it fits in a {@code long}.
+   *
+   * @return the numerator, meaningful only if {@link #isSmall()}.
+   */
+  long smallNumerator() {
+    return num;
+  }
+
+  /**
+   * Returns the denominator, if it fits in a {@code long}.
+   *
+   * @return the denominator, meaningful only if {@link #isSmall()}.
+   */
+  long smallDenominator() {
+    return den;
+  }
+
+  /**
+   * Returns the sum of this rational number and another one.
+   *
+   * @param other the other rational number.
+   * @return the sum of this rational number and {@code other}.
+   */
+  public ExactRationalNumber add(ExactRationalNumber other) {
+    if (bigNum == null && other.bigNum == null) {
+      try {
+        // Knuth, TAOCP vol. 2, 4.5.1: the gcd of the result divides that of the denominators
+        final long g = gcd(den, other.den);
+        final long s = den / g, t = other.den / g;
+        final long n = Math.addExact(Math.multiplyExact(num, t), Math.multiplyExact(other.num, s));
+        if (n == 0) return ZERO;
+        if (n != Long.MIN_VALUE) {
+          final long g2 = gcd(Math.abs(n), g);
+          return new ExactRationalNumber(n / g2, Math.multiplyExact(s, other.den / g2), null, null);
+        }
+      } catch (ArithmeticException e) {
+        // falls back to big integers below
+      }
+    }
+    return new ExactRationalNumber(
+        numerator().multiply(other.denominator()).add(other.numerator().multiply(denominator())),
+        denominator().multiply(other.denominator()));
+  }
+
+  /**
+   * Returns the product of this rational number and another one.
+   *
+   * @param other the other rational number.
+   * @return the product of this rational number and {@code other}.
+   */
+  public ExactRationalNumber mul(ExactRationalNumber other) {
+    if (bigNum == null && other.bigNum == null) {
+      if (num == 0 || other.num == 0) return ZERO;
+      // cross-cancellation: the result is reduced, and the factors are as small as possible
+      final long g1 = gcd(Math.abs(num), other.den), g2 = gcd(Math.abs(other.num), den);
+      try {
+        final long n = Math.multiplyExact(num / g1, other.num / g2);
+        if (n != Long.MIN_VALUE)
+          return new ExactRationalNumber(
+              n, Math.multiplyExact(den / g2, other.den / g1), null, null);
+      } catch (ArithmeticException e) {
+        // falls back to big integers below
+      }
+    }
+    return new ExactRationalNumber(
+        numerator().multiply(other.numerator()), denominator().multiply(other.denominator()));
+  }
+
+  /**
+   * Tells whether this rational number is an integer.
+   *
+   * @return {@code true} if this rational number is an integer, {@code false} otherwise.
+   */
+  public boolean isInteger() {
+    return bigNum == null ? den == 1 : bigDen.equals(BigInteger.ONE);
+  }
+
+  /**
+   * Tells whether this rational number is positive.
+   *
+   * @return {@code true} if this rational number is positive, {@code false} otherwise.
+   */
+  public boolean isPositive() {
+    return bigNum == null ? num > 0 : bigNum.signum() > 0;
+  }
+
+  /**
+   * Tells whether this rational number is equal to zero.
+   *
+   * @return {@code true} if this rational number is zero, {@code false} otherwise.
+   */
+  public boolean isZero() {
+    return bigNum == null && num == 0;
+  }
+
+  @Override
+  public String toString() {
+    if (bigNum == null) return den == 1 ? Long.toString(num) : num + "/" + den;
+    return bigDen.equals(BigInteger.ONE) ? bigNum.toString() : bigNum + "/" + bigDen;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof ExactRationalNumber other)) return false;
+    if (bigNum == null) return other.bigNum == null && num == other.num && den == other.den;
+    return bigNum.equals(other.bigNum) && bigDen.equals(other.bigDen);
+  }
+
+  @Override
+  public int hashCode() {
+    return bigNum == null ? Objects.hash(num, den) : Objects.hash(bigNum, bigDen);
+  }
+}
@@ -0,0 +1,415 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.s12;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A map from {@link String} to {@link Integer} based on hashing.
+ *
+ * <p>This class has the same public interface of {@link StringToIntMap}, but stores the mappings
+ * in an open addressing hash table with linear probing: keys are kept in a {@code String[]}, their
+ * (spread) hash codes in a parallel {@code int[]} so that probes compare strings only when hashes
+ * match, and values in a primitive {@code int[]}. Hence {@link #put(String, int)}, {@link
+ * #get(String)} and {@link #remove(String)} take constant expected time.
+ *
+ * <p>Optionally, the map can keep a <em>reverse index</em> counting how many keys are associated
+ * to each value, so that also {@link #containsValue(int)} takes constant expected time.
+ */
+public class HashStringToIntMap {
+
+  /** The initial capacity of the internal table (must be a power of two). */
+  private static final int INITIAL_CAPACITY = 16;
+
+  /** The maximum ratio between the number of mappings and the table length. */
+  private static final float LOAD_FACTOR = 0.75f;
+
+  /** The keys, {@code null} marks a free slot. */
+  private String[] keys;
+
+  /** The spread hash codes of the keys. */
+  private int[] hashes;
+
+  /** The values. */
+  private int[] values;
+
+  /** The number of mappings. */
+  private int size;
+
+  /** The number of mappings that triggers a resize. */
+  private int maxFill;
+
+  /** The reverse index, or {@code null} if not kept. */
+  private final ValueCounts valueCounts;
+
+  /*-
+   * AF:
+   *
+   *   AF(keys, values) = a map where keys[i] is associated to values[i] for each i such that
+   *   keys[i] != null.
+   *
+   * RI:
+   *
+   *  - keys, hashes and values are not null and have the same length, that is a power of two,
+   *  - size == number of i such that keys[i] != null, and size <= maxFill < keys.length,
+   *  - for all i such that keys[i] != null, hashes[i] == spread(keys[i].hashCode()),
+   *  - for all i != j such that keys[i] != null, !keys[i].equals(keys[j]),
+   *  - for all i such that keys[i] != null, no slot between hashes[i] & (keys.length - 1) and i
+   *    (cyclically) is free,
+   *  - if valueCounts != null, for every v it counts the number of i with keys[i] != null and
+   *    values[i] == v.
+   *
+   */
+
+  /** Creates a new empty map, without reverse index. */
+  public HashStringToIntMap() {
+    this(false);
+  }
+
+  /**
+   * Creates a new empty map.
+   *
+   * @param indexValues whether to keep a reverse index to speed up {@link #containsValue(int)}.
+   */
+  public HashStringToIntMap(boolean indexValues) {
+    allocate(INITIAL_CAPACITY);
+    size = 0;
+    valueCounts = indexValues ? new ValueCounts() : null;
+  }
+
+  /**
+   * Allocates empty arrays of the given length.
+   *
+   * @param length the length, must be a power of two.
+   */
+  private void allocate(int length) {
+    keys = new String[length];
+    hashes = new int[length];
+    values = new int[length];
+    maxFill = (int) (length * LOAD_FACTOR);
+  }
+
+  /**
+   * Spreads the bits of a hash code, so that also the high ones affect the slot.
+   *
+   * @param h the hash code.
+   * @return the spread hash code.
+   */
+  private static int spread(int h) {
+    h *= 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Finds the slot of the specified key.
+   *
+   * @param key the key to search for, must not be {@code null}.
+   * @param h the spread hash code of {@code key}.
+   * @return the slot of the key if found; otherwise, {@code -slot - 1}, where slot is the free slot
+   *     where the key should be inserted.
+   */
+  private int findSlot(String key, int h) {
+    final int mask = keys.length - 1;
+    int i = h & mask;
+    while (keys[i] != null) {
+      if (hashes[i] == h && keys[i].equals(key)) return i;
+      i = (i + 1) & mask;
+    }
+    return -i - 1;
+  }
+
+  /** Doubles the length of the table, reinserting every mapping. */
+  private void rehash() {
+    final String[] oldKeys = keys;
+    final int[] oldHashes = hashes, oldValues = values;
+    allocate(oldKeys.length * 2);
+    final int mask = keys.length - 1;
+    for (int j = 0; j < oldKeys.length; j++) {
+      if (oldKeys[j] == null) continue;
+      int i = oldHashes[j] & mask;
+      while (keys[i] != null) i = (i + 1) & mask;
+      keys[i] = oldKeys[j];
+      hashes[i] = oldHashes[j];
+      values[i] = oldValues[j];
+    }
+  }
+
+  /**
+   * Returns the size of this map.
+   *
+   * @return the number of key-value mappings in this map.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns if this map is empty.
+   *
+   * @return {@code true} iff this map contains no key-value mappings.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns if this map contains the specified key.
+   *
+   * @param key the key to search for.
+   * @return {@code true} iff this map contains a key-value mappings with the given {@code key}.
+   */
+  public boolean containsKey(String key) {
+    return key != null && findSlot(key, spread(key.hashCode())) >= 0;
+  }
+
+  /**
+   * Returns if this map contains the specified value.
+   *
+   * <p>This method takes constant expected time if the map keeps a reverse index, linear time
+   * otherwise.
+   *
+   * @param value the value to search for.
+   * @return {@code true} iff this map contains a key-value mappings with the given {@code value}.
+   */
+  public boolean containsValue(int value) {
+    if (valueCounts != null) return valueCounts.contains(value);
+    for (int i = 0; i < keys.length; i++) if (keys[i] != null && values[i] == value) return true;
+    return false;
+  }
+
+  /**
+   * Returns the value to which the specified key is mapped.
+   *
+   * @param key the key whose associated value is to be returned.
+   * @return the value to which the specified key is mapped.
+   * @throws NoSuchElementException if this map contains no mapping for the key, or the key is
+   *     {@code null}.
+   */
+  public int get(String key) throws NoSuchElementException {
+    if (key == null) throw new NoSuchElementException("The key is null.");
+    final int i = findSlot(key, spread(key.hashCode()));
+    if (i < 0) throw new NoSuchElementException("The key is not present in the map.");
+    return values[i];
+  }
+
+  /**
+   * Associates in this map the new key with the specified value.
+   *
+   * @param key the key with which the specified value is to be associated.
+   * @param value the value to be associated with the specified key.
+   * @throws IllegalArgumentException if the map already contain a mapping for the key.
+   * @throws NullPointerException if the key is {@code null}.
+   */
+  public void put(String key, int value) {
+    final int h = spread(Objects.requireNonNull(key, "The key cannot be null.").hashCode());
+    int i = findSlot(key, h);
+    if (i >= 0)
+      throw new IllegalArgumentException("Key already present, associated value: " + values[i]);
+    i = -i - 1;
+    keys[i] = key;
+    hashes[i] = h;
+    values[i] = value;
+    if (valueCounts != null) valueCounts.increment(value);
+    if (++size > maxFill) rehash();
+  }
+
+  /**
+   * Removes the mapping for a key from this map if it is present.
+   *
+   * @param key the key whose mapping is to be removed from the map.
+   * @return {@code true} iff this map contained a mapping for the specified key, and hence is
+   *     modified by this operation.
+   */
+  public boolean remove(String key) {
+    if (key == null) return false;
+    int i = findSlot(key, spread(key.hashCode()));
+    if (i < 0) return false;
+    if (valueCounts != null) valueCounts.decrement(values[i]);
+    size--;
+    // backward shift deletion: moves back the following keys of the cluster that can be moved
+    final int mask = keys.length - 1;
+    for (int j = (i + 1) & mask; keys[j] != null; j = (j + 1) & mask) {
+      final int k = hashes[j] & mask;
+      if (i <= j ? (k <= i || k > j) : (k <= i && k > j)) {
+        keys[i] = keys[j];
+        hashes[i] = hashes[j];
+        values[i] = values[j];
+        i = j;
+      }
+    }
+    keys[i] = null;
+    return true;
+  }
+
+  /** Removes all of the mappings from this map. */
+  public void clear() {
+    Arrays.fill(keys, null);
+    size = 0;
+    if (valueCounts != null) valueCounts.clear();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) return true;
+    if (!(obj instanceof HashStringToIntMap other)) return false;
+    if (size != other.size) return false;
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] == null) continue;
+      final int j = other.findSlot(keys[i], hashes[i]);
+      if (j < 0 || other.values[j] != values[i]) return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 0; // a sum, so that it does not depend on the order of the slots
+    for (int i = 0; i < keys.length; i++)
+      if (keys[i] != null) result += keys[i].hashCode() ^ Integer.hashCode(values[i]);
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    final int[] slots = new int[size];
+    for (int i = 0, k = 0; i < keys.length; i++) if (keys[i] != null) slots[k++] = i;
+    final String[] sorted = new String[size];
+    for (int k = 0; k < size; k++) sorted[k] = keys[slots[k]];
+    Arrays.sort(sorted);
+    final StringBuilder sb = new StringBuilder("HashStringToIntMap: {");
+    for (int k = 0; k < size; k++) {
+      sb.append(sorted[k]).append("->").append(get(sorted[k]));
+      if (k < size - 1) sb.append(", ");
+    }
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /** A multiset of {@code int}s, counting how many keys are associated to each value. */
+  private static final class ValueCounts {
+
+    /** The values. */
+    private int[] values;
+
+    /** The multiplicities of the values, 0 marks a free slot. */
+    private int[] counts;
+
+    /** The number of distinct values. */
+    private int size;
+
+    /*-
+     * AF: the multiset where values[i] has multiplicity counts[i], for each i with counts[i] > 0.
+     *
+     * RI: same as that of the enclosing class, with counts[i] == 0 in place of keys[i] == null.
+     */
+
+    /** Creates an empty multiset. */
+    ValueCounts() {
+      values = new int[INITIAL_CAPACITY];
+      counts = new int[INITIAL_CAPACITY];
+      size = 0;
+    }
+
+    /**
+     * Finds the slot of the specified value.
+     *
+     * @param v the value.
+     * @return the slot of {@code v} if present; otherwise, {@code -slot - 1}, where slot is the
+     *     free slot where {@code v} should be inserted.
+     */
+    private int findSlot(int v) {
+      final int mask = values.length - 1;
+      int i = spread(v) & mask;
+      while (counts[i] != 0) {
+        if (values[i] == v) return i;
+        i = (i + 1) & mask;
+      }
+      return -i - 1;
+    }
+
+    /**
+     * Tells if the specified value has positive multiplicity.
+     *
+     * @param v the value.
+     * @return {@code true} iff {@code v} belongs to this multiset.
+     */
+    boolean contains(int v) {
+      return findSlot(v) >= 0;
+    }
+
+    /**
+     * Increments the multiplicity of the specified value.
+     *
+     * @param v the value.
+     */
+    void increment(int v) {
+      int i = findSlot(v);
+      if (i >= 0) {
+        counts[i]++;
+        return;
+      }
+      i = -i - 1;
+      values[i] = v;
+      counts[i] = 1;
+      if (++size > (int) (values.length * LOAD_FACTOR)) {
+        final int[] oldValues = values, oldCounts = counts;
+        values = new int[oldValues.length * 2];
+        counts = new int[oldValues.length * 2];
+        for (int j = 0; j < oldValues.length; j++) {
+          if (oldCounts[j] == 0) continue;
+          final int k = -findSlot(oldValues[j]) - 1;
+          values[k] = oldValues[j];
+          counts[k] = oldCounts[j];
+        }
+      }
+    }
+
+    /**
+     * Decrements the multiplicity of the specified value, that must be present.
+     *
+     * @param v the value.
+     */
+    void decrement(int v) {
+      int i = findSlot(v);
+      if (--counts[i] > 0) return;
+      size--;
+      final int mask = values.length - 1;
+      for (int j = (i + 1) & mask; counts[j] != 0; j = (j + 1) & mask) {
+        final int k = spread(values[j]) & mask;
+        if (i <= j ? (k <= i || k > j) : (k <= i && k > j)) {
+          values[i] = values[j];
+          counts[i] = counts[j];
+          i = j;
+        }
+      }
+      counts[i] = 0;
+    }
+
+    /** Empties this multiset. */
+    void clear() {
+      Arrays.fill(counts, 0);
+      size = 0;
+    }
+  }
+}
@@ -0,0 +1,249 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.s12;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+
+/**
+ * A bounded queue of integers that can be shared among <em>many producer</em> and <em>many
+ * consumer</em> threads, without locks.
+ *
+ * <p>Like {@link BoundedIntQueue}, elements are stored in a circular {@code int[]} buffer whose
+ * capacity is a power of two. Each slot has a <em>sequence number</em> telling, with respect to
+ * the ever increasing head and tail counters, whether it is ready to be written or read: threads
+ * claim slots by a compare-and-set of the counters and then publish the slot by a
+ * <em>release</em> store of its sequence number (following the design by D. Vyukov).
+ */
+public class MpmcIntQueue {
+
+  /** The handle for atomic accesses to {@link #head}. */
+  private static final VarHandle HEAD;
+
+  /** The handle for atomic accesses to {@link #tail}. */
+  private static final VarHandle TAIL;
+
+  /** The handle for ordered accesses to the elements of {@link #sequences}. */
+  private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+
+  static {
+    try {
+      final MethodHandles.Lookup lookup = MethodHandles.lookup();
+      HEAD = lookup.findVarHandle(MpmcIntQueue.class, "head", long.class);
+      TAIL = lookup.findVarHandle(MpmcIntQueue.class, "tail", long.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /** The elements in the queue. */
+  private final int[] elements;
+
+  /** The sequence numbers of the slots of {@link #elements}. */
+  private final long[] sequences;
+
+  /** The mask turning a counter into an index of {@link #elements}. */
+  private final int mask;
+
+  /** The number of slots ever claimed by consumers. */
+  private volatile long head;
+
+  /** The number of slots ever claimed by producers. */
+  private volatile long tail;
+
+  /*-
+   * AF:
+   *
+   *  AF(elements, sequences, head, tail) = [elements[p & mask] : head <= p < tail and
+   *      sequences[p & mask] == p + 1]
+   *
+   * RI:
+   *
+   *  - elements and sequences are not null and have the same length, that is a power of two,
+   *  - mask == elements.length - 1
+   *  - 0 <= head <= tail <= head + elements.length
+   *  - for every slot i, sequences[i] is p if the slot is free for the producer of position p,
+   *    p + 1 if it contains the element of position p, not yet consumed
+   *
+   */
+
+  /**
+   * Creates a new queue with at least the given capacity.
+   *
+   * <p>The capacity is at least 2, since with a single slot the sequence number of a full slot for
+   * position \( p \) would coincide with that of a free slot for position \( p + 1 \).
+   *
+   * @param capacity the minimum capacity of the queue, rounded up to a power of two (and to 2).
+   * @throws IllegalArgumentException if {@code capacity} is not positive, or greater than {@code
+   *     2^30}.
+   */
+  public MpmcIntQueue(int capacity) {
+    if (capacity <= 0 || capacity > 1 << 30)
+      throw new IllegalArgumentException("capacity must be positive and at most 2^30");
+    elements = new int[capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1];
+    sequences = new long[elements.length];
+    mask = elements.length - 1;
+    for (int i = 0; i < sequences.length; i++) sequences[i] = i;
+  }
+
+  /**
+   * Returns the capacity of the queue.
+   *
+   * @return the maximum number of elements the queue can contain.
+   */
+  public int capacity() {
+    return elements.length;
+  }
+
+  /**
+   * Returns the number of elements in the queue.
+   *
+   * <p>If other threads are using the queue the result is just an estimate.
+   *
+   * @return the number of elements.
+   */
+  public int size() {
+    final long h = head;
+    return (int) Math.max(0, Math.min(elements.length, tail - h));
+  }
+
+  /**
+   * Determines whether the queue is empty.
+   *
+   * <p>If other threads are using the queue the result is just an estimate.
+   *
+   * @return {@code true} if the queue is empty, {@code false} otherwise.
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Adds an element to the queue, if it is not full.
+   *
+   * @param x the element to add.
+   * @return {@code true} if the element has been added, {@code false} if the queue is full.
+   */
+  public boolean offer(int x) {
+    long t = tail;
+    while (true) {
+      final int i = (int) t & mask;
+      final long diff = (long) SEQUENCE.getAcquire(sequences, i) - t;
+      if (diff == 0) {
+        if (TAIL.compareAndSet(this, t, t + 1)) {
+          elements[i] = x;
+          SEQUENCE.setRelease(sequences, i, t + 1);
+          return true;
+        }
+        t = tail;
+      } else if (diff < 0) {
+        return false; // the slot still holds the element of the previous lap
+      } else {
+        t = tail; // another producer claimed the slot
+      }
+    }
+  }
+
+  /**
+   * Removes the element at the head of the queue, if it is not empty.
+   *
+   * <p>An empty queue is a normal condition for a consumer, so it is reported by the result, as
+   * {@link #offer(int)} does for a full queue, rather than by an exception.
+   *
+   * @param out the array where to store, in position 0, the element at the head of the queue.
+   * @return {@code true} if an element has been removed, {@code false} if the queue is empty (in
+   *     which case {@code out} is not modified).
+   * @throws NullPointerException if {@code out} is {@code null}.
+   * @throws IndexOutOfBoundsException if {@code out} is empty.
+   */
+  public boolean poll(int[] out) {
+    Objects.checkIndex(0, Objects.requireNonNull(out).length);
+    long h = head;
+    while (true) {
+      final int i = (int) h & mask;
+      final long diff = (long) SEQUENCE.getAcquire(sequences, i) - (h + 1);
+      if (diff == 0) {
+        if (HEAD.compareAndSet(this, h, h + 1)) {
+          out[0] = elements[i];
+          SEQUENCE.setRelease(sequences, i, h + elements.length);
+          return true;
+        }
+        h = head;
+      } else if (diff < 0) {
+        return false; // the slot has not been published yet
+      } else {
+        h = head; // another consumer claimed the slot
+      }
+    }
+  }
+
+  /**
+   * Removes up to {@code len} elements from the head of the queue, copying them in the given
+   * array.
+   *
+   * <p>The elements ready to be consumed are claimed with a single compare-and-set, hence they are
+   * consecutive elements of the queue.
+   *
+   * @param dst the destination array.
+   * @param off the position in {@code dst} of the first removed element.
+   * @param len the maximum number of elements to remove.
+   * @return the number of removed elements, 0 if the queue is empty.
+   * @throws NullPointerException if {@code dst} is {@code null}.
+   * @throws IndexOutOfBoundsException if {@code off} and {@code len} are not valid for {@code dst}.
+   */
+  public int drainTo(int[] dst, int off, int len) {
+    Objects.checkFromIndexSize(off, len, Objects.requireNonNull(dst).length);
+    while (true) {
+      final long h = head;
+      int n = 0;
+      while (n < len && (long) SEQUENCE.getAcquire(sequences, (int) (h + n) & mask) == h + n + 1)
+        n++;
+      if (n == 0) return 0;
+      if (HEAD.compareAndSet(this, h, h + n)) {
+        for (int k = 0; k < n; k++) {
+          final int i = (int) (h + k) & mask;
+          dst[off + k] = elements[i];
+          SEQUENCE.setRelease(sequences, i, h + k + elements.length);
+        }
+        return n;
+      }
+    }
+  }
+
+  /**
+   * Removes as many elements as possible from the head of the queue, copying them in the given
+   * array.
+   *
+   * @param dst the destination array.
+   * @return the number of removed elements, 0 if the queue is empty.
+   * @throws NullPointerException if {@code dst} is {@code null}.
+   */
+  public int drainTo(int[] dst) {
+    return drainTo(dst, 0, dst.length);
+  }
+
+  @Override
+  public String toString() {
+    return "MpmcIntQueue: [size = " + size() + ", capacity = " + capacity() + "]";
+  }
+}
@@ -0,0 +1,316 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.s12;
+
+import java.math.BigInteger;
+import java.util.Objects;
+
+/**
+ * A rational accumulator is a mutable rational number, meant to sum (or multiply) long streams of
+ * fractions.
+ *
+ * <p>Differently from {@link ExactRationalNumber}, the value is updated in place and is
+ * <em>not</em> kept in minimum terms: the fraction is reduced only when an operation would overflow
+ * the {@code long} representation (or, once the terms have grown beyond it, when their size
+ * doubles), and when the final value is obtained by {@link #toRational()}. Hence, as long as the
+ * terms fit in a {@code long}, every operation takes constant time and allocates no object.
+ *
+ * <p>Accumulators can be combined, so that a stream can be split among many workers, each summing
+ * its part in a partial accumulator, whose values are eventually summed together.
+ */
+public class RationalAccumulator {
+
+  /** The numerator, if the terms fit in a {@code long}. */
+  private long num;
+
+  /** The denominator, if the terms fit in a {@code long}. */
+  private long den;
+
+  /** The numerator, if the terms do not fit in a {@code long}, or {@code null}. */
+  private BigInteger bigNum;
+
+  /** The denominator, if the terms do not fit in a {@code long}, or {@code null}. */
+  private BigInteger bigDen;
+
+  /** The size, in bits, of the largest term after the last reduction of the big terms. */
+  private int reducedBits;
+
+  /*-
+   * AF:
+   *
+   *   AF(num, den, bigNum, bigDen) = num/den if bigNum == null, bigNum/bigDen otherwise
+   *
+   * RI:
+   *
+   *  - bigNum == null iff bigDen == null
+   *  - if bigNum == null: den > 0 and num != Long.MIN_VALUE
+   *  - if bigNum != null: bigDen > 0
+   *
+   */
+
+  /** Creates a new accumulator, whose value is zero. */
+  public RationalAccumulator() {
+    num = 0;
+    den = 1;
+  }
+
+  /**
+   * Adds a fraction to this accumulator.
+   *
+   * @param numerator the numerator of the fraction.
+   * @param denominator the denominator of the fraction.
+   * @throws IllegalArgumentException if {@code denominator} is zero.
+   */
+  public void addInPlace(long numerator, long denominator) {
+    if (denominator == 0) throw new IllegalArgumentException("denominator cannot be zero");
+    if (numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE) {
+      addBig(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+      return;
+    }
+    if (denominator < 0) {
+      numerator = -numerator;
+      denominator = -denominator;
+    }
+    if (bigNum == null) {
+      if (tryAdd(numerator, denominator, false)) return;
+      reduce();
+      final long gcd = ExactRationalNumber.gcd(Math.abs(numerator), denominator);
+      if (tryAdd(numerator / gcd, denominator / gcd, true)) return;
+    }
+    addBig(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+  }
+
+  /**
+   * Adds a rational number to this accumulator.
+   *
+   * @param q the rational number.
+   * @throws NullPointerException if {@code q} is {@code null}.
+   */
+  public void addInPlace(ExactRationalNumber q) {
+    if (Objects.requireNonNull(q).isSmall()) addInPlace(q.smallNumerator(), q.smallDenominator());
+    else addBig(q.numerator(), q.denominator());
+  }
+
+  /**
+   * Adds the value of another accumulator to this accumulator.
+   *
+   * <p>This is the way to combine the partial accumulators of workers summing different parts of a
+   * stream; {@code other} is not modified.
+   *
+   * @param other the other accumulator.
+   * @throws NullPointerException if {@code other} is {@code null}.
+   */
+  public void addInPlace(RationalAccumulator other) {
+    if (Objects.requireNonNull(other).bigNum == null) addInPlace(other.num, other.den);
+    else addBig(other.bigNum, other.bigDen);
+  }
+
+  /**
+   * Multiplies this accumulator by a fraction.
+   *
+   * @param numerator the numerator of the fraction.
+   * @param denominator the denominator of the fraction.
+   * @throws IllegalArgumentException if {@code denominator} is zero.
+   */
+  public void mulInPlace(long numerator, long denominator) {
+    if (denominator == 0) throw new IllegalArgumentException("denominator cannot be zero");
+    if (numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE) {
+      mulBig(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+      return;
+    }
+    if (denominator < 0) {
+      numerator = -numerator;
+      denominator = -denominator;
+    }
+    if (bigNum == null) {
+      if (tryMul(numerator, denominator)) return;
+      reduce();
+      // cross-cancellation, that preserves the value of the product
+      final long g1 = ExactRationalNumber.gcd(Math.abs(num), denominator);
+      final long g2 = ExactRationalNumber.gcd(Math.abs(numerator), den);
+      num /= g1;
+      den /= g2;
+      if (tryMul(numerator / g2, denominator / g1)) return;
+      numerator /= g2;
+      denominator /= g1;
+    }
+    mulBig(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+  }
+
+  /**
+   * Multiplies this accumulator by a rational number.
+   *
+   * @param q the rational number.
+   * @throws NullPointerException if {@code q} is {@code null}.
+   */
+  public void mulInPlace(ExactRationalNumber q) {
+    if (Objects.requireNonNull(q).isSmall()) mulInPlace(q.smallNumerator(), q.smallDenominator());
+    else mulBig(q.numerator(), q.denominator());
+  }
+
+  /**
+   * Multiplies this accumulator by the value of another accumulator.
+   *
+   * @param other the other accumulator, that is not modified.
+   * @throws NullPointerException if {@code other} is {@code null}.
+   */
+  public void mulInPlace(RationalAccumulator other) {
+    if (Objects.requireNonNull(other).bigNum == null) mulInPlace(other.num, other.den);
+    else mulBig(other.bigNum, other.bigDen);
+  }
+
+  /**
+   * Returns the value of this accumulator.
+   *
+   * @return the value of this accumulator, as a rational number reduced to minimum terms.
+   */
+  public ExactRationalNumber toRational() {
+    return bigNum == null
+        ? new ExactRationalNumber(num, den)
+        : new ExactRationalNumber(bigNum, bigDen);
+  }
+
+  /**
+   * Tries to add a fraction to the {@code long} terms.
+   *
+   * @param n the numerator of the fraction, not {@code Long.MIN_VALUE}.
+   * @param d the (positive) denominator of the fraction.
+   * @param cancel whether to divide the denominators by their gcd before multiplying.
+   * @return {@code true} iff the sum has been stored in the {@code long} terms (that, otherwise,
+   *     are left unmodified).
+   */
+  private boolean tryAdd(long n, long d, boolean cancel) {
+    try {
+      final long sn, sd;
+      if (d == den) {
+        sn = Math.addExact(num, n);
+        sd = den;
+      } else {
+        final long g = cancel ? ExactRationalNumber.gcd(den, d) : 1;
+        sn = Math.addExact(Math.multiplyExact(num, d / g), Math.multiplyExact(n, den / g));
+        sd = Math.multiplyExact(den / g, d);
+      }
+      if (sn == Long.MIN_VALUE) return false;
+      num = sn;
+      den = sd;
+      return true;
+    } catch (ArithmeticException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Tries to multiply the {@code long} terms by a fraction.
+   *
+   * @param n the numerator of the fraction, not {@code Long.MIN_VALUE}.
+   * @param d the (positive) denominator of the fraction.
+   * @return {@code true} iff the product has been stored in the {@code long} terms (that,
+   *     otherwise, are left unmodified).
+   */
+  private boolean tryMul(long n, long d) {
+    try {
+      final long pn = Math.multiplyExact(num, n), pd = Math.multiplyExact(den, d);
+      if (pn == Long.MIN_VALUE) return false;
+      num = pn;
+      den = pd;
+      return true;
+    } catch (ArithmeticException e) {
+      return false;
+    }
+  }
+
+  /** Reduces the {@code long} terms to minimum terms. */
+  private void reduce() {
+    final long gcd = ExactRationalNumber.gcd(Math.abs(num), den);
+    num /= gcd;
+    den /= gcd;
+  }
+
+  /** Switches to the big terms, if not already using them. */
+  private void promote() {
+    if (bigNum != null) return;
+    bigNum = BigInteger.valueOf(num);
+    bigDen = BigInteger.valueOf(den);
+    reducedBits = Math.max(bigNum.bitLength(), bigDen.bitLength());
+  }
+
+  /**
+   * Adds a fraction to the big terms.
+   *
+   * @param n the numerator of the fraction.
+   * @param d the denominator of the fraction, not zero.
+   */
+  private void addBig(BigInteger n, BigInteger d) {
+    promote();
+    if (d.signum() < 0) {
+      n = n.negate();
+      d = d.negate();
+    }
+    if (d.equals(bigDen)) {
+      bigNum = bigNum.add(n);
+    } else {
+      bigNum = bigNum.multiply(d).add(n.multiply(bigDen));
+      bigDen = bigDen.multiply(d);
+    }
+    shrink();
+  }
+
+  /**
+   * Multiplies the big terms by a fraction.
+   *
+   * @param n the numerator of the fraction.
+   * @param d the denominator of the fraction, not zero.
+   */
+  private void mulBig(BigInteger n, BigInteger d) {
+    promote();
+    if (d.signum() < 0) {
+      n = n.negate();
+      d = d.negate();
+    }
+    bigNum = bigNum.multiply(n);
+    bigDen = bigDen.multiply(d);
+    shrink();
+  }
+
+  /**
+   * Reduces the big terms if their size has more than doubled since the last reduction, switching
+   * back to the {@code long} terms if they fit.
+   */
+  private void shrink() {
+    if (Math.max(bigNum.bitLength(), bigDen.bitLength()) <= 2 * reducedBits + 64) return;
+    final BigInteger gcd = bigNum.gcd(bigDen);
+    bigNum = bigNum.divide(gcd);
+    bigDen = bigDen.divide(gcd);
+    reducedBits = Math.max(bigNum.bitLength(), bigDen.bitLength());
+    if (reducedBits < 64 && bigNum.longValue() != Long.MIN_VALUE) {
+      num = bigNum.longValue();
+      den = bigDen.longValue();
+      bigNum = null;
+      bigDen = null;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "RationalAccumulator: " + toRational();
+  }
+}
@@ -0,0 +1,54 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.s12;
+
+import java.util.Scanner;
+
+/** A class to exercise a {@link RationalAccumulator}. */
+public class RationalAccumulatorClient {
+
+  /** . */
+  private RationalAccumulatorClient() {}
+
+  /**
+   * Tests some methods of {@link RationalAccumulator}.
+   *
+   * <p>Reads a list of pairs of integers from the standard input, corresponding to the numerator
+   * and the denominator of a sequence of rational numbers \( q_i \), and emits their sum in the
+   * standard output. The sequence is split among \( k \) partial accumulators (the \( i \)-th
+   * rational number is added to the accumulator of index \( i \bmod k \)), as it would happen with
+   * \( k \) parallel workers; the partial accumulators are finally combined.
+   *
+   * @param args the number \( k \) of partial accumulators (1 if missing).
+   */
+  public static void main(String[] args) {
+    final int k = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+    final RationalAccumulator[] partial = new RationalAccumulator[k];
+    for (int j = 0; j < k; j++) partial[j] = new RationalAccumulator();
+    int i = 0;
+    try (Scanner sc = new Scanner(System.in)) {
+      while (sc.hasNextLong()) partial[i++ % k].addInPlace(sc.nextLong(), sc.nextLong());
+    }
+    for (int j = 1; j < k; j++) partial[0].addInPlace(partial[j]);
+    System.out.println(partial[0].toRational());
+  }
+}
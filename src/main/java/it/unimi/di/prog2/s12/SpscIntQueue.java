@@ -0,0 +1,221 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.s12;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+
+/**
+ * A bounded queue of integers to hand off elements from a <em>single producer</em> thread to a
+ * <em>single consumer</em> thread, without locks.
+ *
+ * <p>Like {@link BoundedIntQueue}, elements are stored in a circular {@code int[]} buffer; its
+ * capacity is a power of two, so that positions are computed by masking ever increasing counters.
+ * The producer publishes elements by a <em>release</em> store of the tail counter, that the
+ * consumer reads with <em>acquire</em> semantics (and symmetrically for the head counter), so no
+ * further synchronization is needed.
+ *
+ * <p>At every moment at most one thread may call {@link #offer(int)}, and at most one (possibly
+ * different) thread may call {@link #poll(int[])} and {@link #drainTo(int[], int, int)}.
+ */
+public class SpscIntQueue {
+
+  /** The handle for ordered accesses to {@link #head}. */
+  private static final VarHandle HEAD;
+
+  /** The handle for ordered accesses to {@link #tail}. */
+  private static final VarHandle TAIL;
+
+  static {
+    try {
+      final MethodHandles.Lookup lookup = MethodHandles.lookup();
+      HEAD = lookup.findVarHandle(SpscIntQueue.class, "head", long.class);
+      TAIL = lookup.findVarHandle(SpscIntQueue.class, "tail", long.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /** The elements in the queue. */
+  private final int[] elements;
+
+  /** The mask turning a counter into an index of {@link #elements}. */
+  private final int mask;
+
+  /** The number of elements ever removed (written only by the consumer). */
+  private long head;
+
+  /** The number of elements ever added (written only by the producer). */
+  private long tail;
+
+  /** The value of {@link #head} last seen by the producer. */
+  private long cachedHead;
+
+  /** The value of {@link #tail} last seen by the consumer. */
+  private long cachedTail;
+
+  /*-
+   * AF:
+   *
+   *  AF(elements, head, tail) = [elements[head & mask], ..., elements[(tail - 1) & mask]]
+   *
+   * RI:
+   *
+   *  - elements is not null and its length is a power of two, mask == elements.length - 1
+   *  - 0 <= cachedHead <= head <= tail, tail - head <= elements.length
+   *  - cachedTail <= tail
+   *
+   */
+
+  /**
+   * Creates a new queue with at least the given capacity.
+   *
+   * @param capacity the minimum capacity of the queue, rounded up to a power of two.
+   * @throws IllegalArgumentException if {@code capacity} is not positive, or greater than {@code
+   *     2^30}.
+   */
+  public SpscIntQueue(int capacity) {
+    if (capacity <= 0 || capacity > 1 << 30)
+      throw new IllegalArgumentException("capacity must be positive and at most 2^30");
+    elements = new int[capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1];
+    mask = elements.length - 1;
+  }
+
+  /**
+   * Returns the capacity of the queue.
+   *
+   * @return the maximum number of elements the queue can contain.
+   */
+  public int capacity() {
+    return elements.length;
+  }
+
+  /**
+   * Returns the number of elements in the queue.
+   *
+   * <p>If other threads are using the queue the result is just an estimate.
+   *
+   * @return the number of elements.
+   */
+  public int size() {
+    final long h = (long) HEAD.getAcquire(this);
+    return (int) Math.max(0, Math.min(elements.length, (long) TAIL.getAcquire(this) - h));
+  }
+
+  /**
+   * Determines whether the queue is empty.
+   *
+   * <p>If other threads are using the queue the result is just an estimate.
+   *
+   * @return {@code true} if the queue is empty, {@code false} otherwise.
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Adds an element to the queue, if it is not full (to be called by the producer only).
+   *
+   * @param x the element to add.
+   * @return {@code true} if the element has been added, {@code false} if the queue is full.
+   */
+  public boolean offer(int x) {
+    final long t = tail;
+    if (t - cachedHead == elements.length) {
+      cachedHead = (long) HEAD.getAcquire(this);
+      if (t - cachedHead == elements.length) return false;
+    }
+    elements[(int) t & mask] = x;
+    TAIL.setRelease(this, t + 1);
+    return true;
+  }
+
+  /**
+   * Removes the element at the head of the queue, if it is not empty (to be called by the consumer
+   * only).
+   *
+   * <p>An empty queue is a normal condition for a consumer, so it is reported by the result, as
+   * {@link #offer(int)} does for a full queue, rather than by an exception.
+   *
+   * @param out the array where to store, in position 0, the element at the head of the queue.
+   * @return {@code true} if an element has been removed, {@code false} if the queue is empty (in
+   *     which case {@code out} is not modified).
+   * @throws NullPointerException if {@code out} is {@code null}.
+   * @throws IndexOutOfBoundsException if {@code out} is empty.
+   */
+  public boolean poll(int[] out) {
+    Objects.checkIndex(0, Objects.requireNonNull(out).length);
+    final long h = head;
+    if (h == cachedTail) {
+      cachedTail = (long) TAIL.getAcquire(this);
+      if (h == cachedTail) return false;
+    }
+    out[0] = elements[(int) h & mask];
+    HEAD.setRelease(this, h + 1);
+    return true;
+  }
+
+  /**
+   * Removes up to {@code len} elements from the head of the queue, copying them in the given array
+   * (to be called by the consumer only).
+   *
+   * <p>Elements are copied with at most two {@link System#arraycopy} calls, and made available to
+   * the producer at once.
+   *
+   * @param dst the destination array.
+   * @param off the position in {@code dst} of the first removed element.
+   * @param len the maximum number of elements to remove.
+   * @return the number of removed elements, 0 if the queue is empty.
+   * @throws NullPointerException if {@code dst} is {@code null}.
+   * @throws IndexOutOfBoundsException if {@code off} and {@code len} are not valid for {@code dst}.
+   */
+  public int drainTo(int[] dst, int off, int len) {
+    Objects.checkFromIndexSize(off, len, Objects.requireNonNull(dst).length);
+    final long h = head;
+    if (cachedTail - h < len) cachedTail = (long) TAIL.getAcquire(this);
+    final int n = (int) Math.min(len, cachedTail - h);
+    if (n == 0) return 0;
+    final int from = (int) h & mask, first = Math.min(n, elements.length - from);
+    System.arraycopy(elements, from, dst, off, first);
+    System.arraycopy(elements, 0, dst, off + first, n - first);
+    HEAD.setRelease(this, h + n);
+    return n;
+  }
+
+  /**
+   * Removes as many elements as possible from the head of the queue, copying them in the given
+   * array (to be called by the consumer only).
+   *
+   * @param dst the destination array.
+   * @return the number of removed elements, 0 if the queue is empty.
+   * @throws NullPointerException if {@code dst} is {@code null}.
+   */
+  public int drainTo(int[] dst) {
+    return drainTo(dst, 0, dst.length);
+  }
+
+  @Override
+  public String toString() {
+    return "SpscIntQueue: [size = " + size() + ", capacity = " + capacity() + "]";
+  }
+}
@@ -0,0 +1,83 @@
+/*
+
+Copyright 2025 Massimo Santini
+
+This file is part of "Programmazione 2 @ UniMI" teaching material.
+
+This is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This material is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this file.  If not, see <https://www.gnu.org/licenses/>.
+
+*/
+
+package it.unimi.di.prog2.h11;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The {@link CoefficientKernels} written with the Vector API.
+ *
+ * <p>Each loop processes the coefficients in vectors of the preferred shape of the platform (that
+ * is, 8 coefficients with AVX2 and 16 with AVX-512), and the remaining ones one at a time.
+ *
+ * <p>This class lives in its own source set, since it needs the incubating {@code
+ * jdk.incubator.vector} module, whose use javac always reports with a warning; {@link
+ * CoefficientKernels#load()} instantiates it by reflection.
+ */
+final class VectorKernels implements CoefficientKernels {
+
+  /** The species of the vectors, as wide as the platform allows. */
+  private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+  /** . */
+  VectorKernels() {}
+
+  @Override
+  public void add(int[] a, int[] b, int[] r, int n) {
+    final int bound = SPECIES.loopBound(n);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length())
+      IntVector.fromArray(SPECIES, a, i).add(IntVector.fromArray(SPECIES, b, i)).intoArray(r, i);
+    for (; i < n; i++) r[i] = a[i] + b[i];
+  }
+
+  @Override
+  public void sub(int[] a, int[] b, int[] r, int n) {
+    final int bound = SPECIES.loopBound(n);
+    int i = 0;
+    for (; i < bound; i += SPECIES.length())
+      IntVector.fromArray(SPECIES, a, i).sub(IntVector.fromArray(SPECIES, b, i)).intoArray(r, i);
+    for (; i < n; i++) r[i] = a[i] - b[i];
+  }
+
+  @Override
+  public void negate(int[] a, int[] r, int from, int to) {
+    final int bound = from + SPECIES.loopBound(to - from);
+    int i = from;
+    for (; i < bound; i += SPECIES.length())
+      IntVector.fromArray(SPECIES, a, i).neg().intoArray(r, i);
+    for (; i < to; i++) r[i] = -a[i];
+  }
+
+  @Override
+  public void addScaled(int c, int[] b, int bOff, int[] r, int rOff, int n) {
+    final int bound = SPECIES.loopBound(n);
+    int j = 0;
+    for (; j < bound; j += SPECIES.length())
+      IntVector.fromArray(SPECIES, b, bOff + j)
+          .mul(c)
+          .add(IntVector.fromArray(SPECIES, r, rOff + j))
+          .intoArray(r, rOff + j);
+    for (; j < n; j++) r[rOff + j] += c * b[bOff + j];
+  }
+}